@@ -0,0 +1,85 @@
+package com.project.back_end.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.Resource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AppointmentResponseBenchmark {
+
+    private List<Appointment> appointments;
+    private Map<String, Object> appointmentEnvelope;
+    private Map<String, Object> doctorEnvelope;
+    private ObjectMapper objectMapper;
+    private DoctorCatalog doctorCatalog;
+
+    @Setup
+    public void setup() {
+        appointments = Fixtures.appointments(50);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        appointmentEnvelope = new HashMap<>();
+        appointmentEnvelope.put("appointments", mapEntities());
+        appointmentEnvelope.put("nextCursor", "MjAzMC0wMS0wOVQwOTowMHw1MA");
+
+        List<Doctor> doctors = Fixtures.doctors(100);
+        doctorEnvelope = new HashMap<>();
+        doctorEnvelope.put("doctors", doctors);
+        doctorCatalog = new DoctorCatalog(Fixtures.repository(DoctorRepository.class, Map.of("findAll", args -> doctors)),
+                objectMapper);
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> mapEntities() {
+        List<AppointmentDTO> dtos = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            dtos.add(new AppointmentDTO(appointment));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> mapProjection() {
+        List<AppointmentDTO> dtos = new ArrayList<>(appointments.size());
+        for (Appointment a : appointments) {
+            dtos.add(new AppointmentDTO(a.getId(), a.getDoctor().getId(), a.getDoctor().getName(), a.getPatient().getId(),
+                    a.getPatient().getName(), a.getPatient().getEmail(), a.getPatient().getPhone(), a.getPatient().getAddress(),
+                    a.getAppointmentTime(), a.getStatus(), a.getCondition()));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public byte[] serializeAppointmentPage() throws Exception {
+        return objectMapper.writeValueAsBytes(appointmentEnvelope);
+    }
+
+    @Benchmark
+    public byte[] serializeDoctorList() throws Exception {
+        return objectMapper.writeValueAsBytes(doctorEnvelope);
+    }
+
+    @Benchmark
+    public Resource serveDoctorCatalog() {
+        return doctorCatalog.current().body(false);
+    }
+}
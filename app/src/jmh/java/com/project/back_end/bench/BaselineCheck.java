@@ -0,0 +1,103 @@
+package com.project.back_end.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.File;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with the stored baseline.
+ * Fails when throughput drops, or normalized allocation grows, by more than the threshold percentage.
+ * Pass {@code --update} as a fourth argument to rewrite the baseline from the results instead.
+ */
+public final class BaselineCheck {
+
+    private static final double MIN_ALLOC_DELTA = 16.0;
+
+    private BaselineCheck() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: BaselineCheck <jmh-result.json> <baseline.json> <threshold-percent> [--update]");
+            System.exit(2);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double threshold = Double.parseDouble(args[2]) / 100.0;
+
+        Map<String, double[]> results = read(mapper.readTree(resultFile));
+        if (args.length > 3 && "--update".equals(args[3])) {
+            writeBaseline(mapper, baselineFile, results);
+            System.out.println("Baseline updated: " + baselineFile);
+            return;
+        }
+        if (!baselineFile.exists()) {
+            System.out.println("No baseline at " + baselineFile + "; skipping comparison");
+            return;
+        }
+
+        JsonNode baseline = mapper.readTree(baselineFile);
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s %12s %12s%n", "benchmark", "ops/ms", "baseline", "delta", "B/op", "baseline");
+        for (Map.Entry<String, double[]> entry : results.entrySet()) {
+            JsonNode expected = baseline.get(entry.getKey());
+            double score = entry.getValue()[0];
+            double alloc = entry.getValue()[1];
+            if (expected == null) {
+                System.out.printf("%-70s %14.3f %14s %9s %12.1f %12s%n", entry.getKey(), score, "-", "new", alloc, "-");
+                continue;
+            }
+            double baseScore = expected.path("score").asDouble();
+            double baseAlloc = expected.path("allocNorm").asDouble(Double.NaN);
+            double delta = baseScore == 0 ? 0 : (score - baseScore) / baseScore;
+            boolean slower = delta < -threshold;
+            boolean allocates = !Double.isNaN(alloc) && !Double.isNaN(baseAlloc)
+                    && alloc - baseAlloc > Math.max(MIN_ALLOC_DELTA, baseAlloc * threshold);
+            String flag = slower || allocates ? "  REGRESSION" : "";
+            if (!flag.isEmpty()) regressions++;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %12.1f %12.1f%s%n",
+                    entry.getKey(), score, baseScore, delta * 100, alloc, baseAlloc, flag);
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed beyond " + args[2] + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, double[]> read(JsonNode runs) {
+        Map<String, double[]> results = new TreeMap<>();
+        for (JsonNode run : runs) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText().replace("com.project.back_end.bench.", ""));
+            JsonNode params = run.path("params");
+            for (Iterator<String> names = params.fieldNames(); names.hasNext(); ) {
+                String name = names.next();
+                key.append(':').append(name).append('=').append(params.get(name).asText());
+            }
+            double alloc = Double.NaN;
+            for (Iterator<Map.Entry<String, JsonNode>> metrics = run.path("secondaryMetrics").fields(); metrics.hasNext(); ) {
+                Map.Entry<String, JsonNode> metric = metrics.next();
+                if (metric.getKey().replace("·", "").equals("gc.alloc.rate.norm")) {
+                    alloc = metric.getValue().path("score").asDouble();
+                }
+            }
+            results.put(key.toString(), new double[]{run.path("primaryMetric").path("score").asDouble(), alloc});
+        }
+        return results;
+    }
+
+    private static void writeBaseline(ObjectMapper mapper, File file, Map<String, double[]> results) throws Exception {
+        ObjectNode root = mapper.createObjectNode();
+        for (Map.Entry<String, double[]> entry : results.entrySet()) {
+            ObjectNode node = root.putObject(entry.getKey());
+            node.put("score", Math.round(entry.getValue()[0] * 1000) / 1000.0);
+            if (!Double.isNaN(entry.getValue()[1])) {
+                node.put("allocNorm", Math.round(entry.getValue()[1] * 10) / 10.0);
+            }
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.back_end.bench;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorSearchIndex;
+import com.project.back_end.services.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DoctorFilterBenchmark {
+
+    @Param({"null/null/null", "smith/null/null", "null/PM/cardio", "john/AM/ology"})
+    public String filter;
+
+    @Param({"1000"})
+    public int doctorCount;
+
+    private List<Doctor> doctors;
+    private Service service;
+    private String name;
+    private String time;
+    private String specialty;
+
+    @Setup
+    public void setup() {
+        doctors = Fixtures.doctors(doctorCount);
+        DoctorRepository repository = Fixtures.repository(DoctorRepository.class,
+                Map.of("findAll", args -> doctors));
+        DoctorSearchIndex index = new DoctorSearchIndex(repository);
+        service = new Service(null, null, null, null, null, null, index);
+
+        String[] parts = filter.split("/");
+        name = parts[0];
+        time = parts[1];
+        specialty = parts[2];
+        service.filterDoctor(name, specialty, time);
+    }
+
+    @Benchmark
+    public List<Doctor> filterDoctor() {
+        return service.filterDoctor(name, specialty, time);
+    }
+}
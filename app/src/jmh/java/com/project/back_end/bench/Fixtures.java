@@ -0,0 +1,78 @@
+package com.project.back_end.bench;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class Fixtures {
+
+    static final String JWT_SECRET = "BenchmarkSecretKey1234567890123456789012345";
+
+    private static final String[] SPECIALTIES = {"Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics",
+            "Oncology", "Psychiatry", "Radiology", "Urology", "Ophthalmology"};
+    private static final String[] FIRST_NAMES = {"John", "Emily", "Michael", "Sarah", "David", "Laura", "James", "Anna"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Brown", "Taylor", "Anderson", "Thomas", "Moore", "Clark"};
+
+    private Fixtures() {}
+
+    static List<Doctor> doctors(int count) {
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> times = new ArrayList<>();
+            int firstHour = i % 2 == 0 ? 8 : 13;
+            for (int h = firstHour; h < firstHour + 4; h++) {
+                times.add(String.format("%02d:00", h));
+            }
+            Doctor doctor = new Doctor("Dr. " + FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / 8) % LAST_NAMES.length] + " " + i,
+                    SPECIALTIES[i % SPECIALTIES.length], "doctor" + i + "@clinic.test", "secret1", "5550000000", times);
+            doctor.setId((long) i + 1);
+            doctors.add(doctor);
+        }
+        return doctors;
+    }
+
+    static Patient patient(long id) {
+        Patient patient = new Patient("Patient " + id, "patient" + id + "@clinic.test", "secret1",
+                String.format("%010d", 5550000000L + id), "Street " + id);
+        patient.setId(id);
+        return patient;
+    }
+
+    static List<Appointment> appointments(int count) {
+        List<Doctor> doctors = doctors(10);
+        List<Appointment> appointments = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 8, 0);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment(doctors.get(i % doctors.size()), patient(i + 1L),
+                    start.plusHours(i), i % 2, "Routine checkup " + i);
+            appointment.setId((long) i + 1);
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }));
+    }
+}
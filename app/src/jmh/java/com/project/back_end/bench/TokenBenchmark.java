@@ -0,0 +1,65 @@
+package com.project.back_end.bench;
+
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenBenchmark {
+
+    private TokenService tokenService;
+    private Patient patient;
+    private String token;
+
+    @Setup
+    public void setup() {
+        patient = Fixtures.patient(1L);
+        PatientRepository patients = Fixtures.repository(PatientRepository.class, Map.of("findByEmail", args -> patient));
+        AdminRepository admins = Fixtures.repository(AdminRepository.class, Map.of("findByUsername", args -> null));
+        DoctorRepository doctors = Fixtures.repository(DoctorRepository.class, Map.of("findByEmail", args -> null));
+
+        tokenService = new TokenService(admins, doctors, patients, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "jwtSecret", Fixtures.JWT_SECRET);
+        ReflectionTestUtils.setField(tokenService, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(tokenService, "cacheTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(tokenService, "init");
+        token = tokenService.generateToken(patient.getEmail());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken(patient.getEmail());
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return tokenService.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenService.validateToken(token, "patient");
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        tokenService.invalidate("patient", patient.getId());
+        return tokenService.validateToken(token, "patient");
+    }
+}
@@ -0,0 +1,205 @@
+package com.project.back_end.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.WeeklySchedule;
+import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.SlotInventory;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Races {@code contention.threads} threads, each trying every slot of a few doctors in its own order, once through
+ * {@link AppointmentService} (in-memory slots backed by the unique constraint) and once through a doctor-row
+ * {@code SELECT ... FOR UPDATE}, and reports booking attempts per second for both. Runs in-process without HTTP
+ * so only the booking path is measured. Uses {@code loadtest.jdbcUrl} when set, an embedded Postgres otherwise.
+ */
+public final class BookingContention {
+
+    private static final int THREADS = Integer.getInteger("contention.threads", 16);
+    private static final int DOCTORS = Integer.getInteger("contention.doctors", 4);
+    private static final int DAYS = Integer.getInteger("contention.days", 5);
+    private static final int HOURS = 8;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(400);
+
+    private final AppointmentService appointmentService;
+    private final SlotInventory slotInventory;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Long> doctorIds = new ArrayList<>();
+    private final List<Long> patientIds = new ArrayList<>();
+    private final List<Slot> slots = new ArrayList<>();
+
+    private BookingContention(ConfigurableApplicationContext context) {
+        this.appointmentService = context.getBean(AppointmentService.class);
+        this.slotInventory = context.getBean(SlotInventory.class);
+        this.jdbc = context.getBean(JdbcTemplate.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String jdbcUrl = System.getProperty("loadtest.jdbcUrl");
+        String user = System.getProperty("loadtest.user", "postgres");
+        String password = System.getProperty("loadtest.password", "");
+        EmbeddedPostgres embedded = null;
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+        }
+        Path data = Files.createTempDirectory("booking-contention");
+        Map<String, Result> results = new LinkedHashMap<>();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackEndApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--appointments.status.journal=" + data.resolve("appointment-status.journal"),
+                        "--appointments.journal.dir=" + data.resolve("journal"),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN")) {
+            BookingContention contention = new BookingContention(context);
+            contention.seed();
+            try {
+                results.put("constraint", contention.race(contention::bookThroughService));
+                contention.clearAppointments();
+                results.put("rowLock", contention.race(contention::bookWithDoctorLock));
+            } finally {
+                contention.cleanUp();
+            }
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+        System.out.printf("%n%-12s %10s %14s%n", "strategy", "booked", "attempts/s");
+        Map<String, Object> output = new LinkedHashMap<>();
+        results.forEach((name, result) -> {
+            System.out.printf("%-12s %10d %14.0f%n", name, result.successes(), result.attemptsPerSecond());
+            output.put(name, Map.of("booked", result.successes(), "attemptsPerSecond", result.attemptsPerSecond()));
+        });
+        File file = new File(System.getProperty("contention.output", "target/booking-contention.json"));
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, output);
+        System.out.println("Results written to " + file);
+    }
+
+    private void seed() {
+        List<String> times = new ArrayList<>();
+        for (int h = 0; h < HOURS; h++) {
+            times.add(LocalTime.of(9 + h, 0).toString());
+        }
+        byte[] schedule = WeeklySchedule.everyDay(times).toBytes();
+        for (int d = 0; d < DOCTORS; d++) {
+            Long id = jdbc.queryForObject("INSERT INTO doctors (name, specialty, email, password, phone, schedule) "
+                    + "VALUES (?, 'Cardiology', ?, 'secret1', '5550003333', ?) RETURNING id", Long.class,
+                    "Contention Doctor " + d, "contention.doctor" + d + "@clinic.test", schedule);
+            doctorIds.add(id);
+            for (int day = 0; day < DAYS; day++) {
+                for (int h = 0; h < HOURS; h++) {
+                    slots.add(new Slot(id, FIRST_DAY.plusDays(day).atTime(9 + h, 0)));
+                }
+            }
+        }
+        for (int p = 0; p < THREADS; p++) {
+            patientIds.add(jdbc.queryForObject("INSERT INTO patients (name, email, password, phone, address) "
+                    + "VALUES (?, ?, 'secret1', ?, 'Street') RETURNING id", Long.class,
+                    "Contention Patient " + p, "contention.patient" + p + "@clinic.test", String.valueOf(5550005000L + p)));
+        }
+    }
+
+    private void cleanUp() {
+        clearAppointments();
+        doctorIds.forEach(id -> jdbc.update("DELETE FROM doctors WHERE id = ?", id));
+        patientIds.forEach(id -> jdbc.update("DELETE FROM patients WHERE id = ?", id));
+    }
+
+    private void clearAppointments() {
+        for (Long id : doctorIds) {
+            jdbc.update("DELETE FROM appointments WHERE doctor_id = ?", id);
+            slotInventory.evictDoctor(id);
+        }
+    }
+
+    private boolean bookThroughService(Slot slot, Long patientId) {
+        Doctor doctor = new Doctor();
+        doctor.setId(slot.doctorId());
+        Patient patient = new Patient();
+        patient.setId(patientId);
+        return appointmentService.bookAppointment(new Appointment(doctor, patient, slot.time(), 0, "checkup")) == 1;
+    }
+
+    private boolean bookWithDoctorLock(Slot slot, Long patientId) {
+        Boolean booked = transactionTemplate.execute(status -> {
+            jdbc.queryForObject("SELECT id FROM doctors WHERE id = ? FOR UPDATE", Long.class, slot.doctorId());
+            Integer taken = jdbc.queryForObject("SELECT count(*) FROM appointments WHERE doctor_id = ? AND appointment_time = ?",
+                    Integer.class, slot.doctorId(), Timestamp.valueOf(slot.time()));
+            if (taken != null && taken > 0) {
+                return false;
+            }
+            jdbc.update("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, 0)",
+                    slot.doctorId(), patientId, Timestamp.valueOf(slot.time()));
+            return true;
+        });
+        return Boolean.TRUE.equals(booked);
+    }
+
+    private Result race(Booking booking) throws InterruptedException {
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Long patientId = patientIds.get(t);
+            List<Slot> order = new ArrayList<>(slots);
+            Collections.shuffle(order, new Random(t));
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (Slot slot : order) {
+                        if (booking.book(slot, patientId)) successes.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - started;
+        return new Result(successes.get(), (long) THREADS * slots.size() * 1_000_000_000.0 / elapsed);
+    }
+
+    private record Slot(Long doctorId, LocalDateTime time) {}
+
+    private record Result(int successes, double attemptsPerSecond) {}
+
+    @FunctionalInterface
+    private interface Booking {
+        boolean book(Slot slot, Long patientId);
+    }
+}
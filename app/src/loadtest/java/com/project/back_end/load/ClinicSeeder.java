@@ -0,0 +1,124 @@
+package com.project.back_end.load;
+
+import com.project.back_end.models.WeeklySchedule;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds doctors, their weekly slots, patients and a history of appointments with set-based SQL.
+ * Randomness is seeded per run so two builds are measured against the same data. An external
+ * database that already holds a load-test clinic is reused as is.
+ */
+final class ClinicSeeder {
+
+    static final String PASSWORD = "password";
+    static final List<String> FIRST_NAMES = List.of("John", "Mary", "James", "Linda", "Robert", "Susan",
+            "Michael", "Karen", "David", "Nancy", "Daniel", "Laura");
+    static final List<String> LAST_NAMES = List.of("Smith", "Johnson", "Brown", "Garcia", "Miller", "Davis",
+            "Wilson", "Moore", "Taylor", "Clark", "Lewis", "Walker", "Young", "Allen", "King", "Scott");
+    static final List<String> SPECIALTIES = List.of("Cardiology", "Dermatology", "Neurology", "Pediatrics",
+            "Oncology", "Orthopedics", "Psychiatry", "Radiology", "Urology", "Gastroenterology");
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final LoadTest.Settings settings;
+
+    ClinicSeeder(String jdbcUrl, String user, String password, LoadTest.Settings settings) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+    }
+
+    Clinic seed() throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+             Statement statement = connection.createStatement()) {
+            if (count(statement, "SELECT count(*) FROM doctors WHERE email LIKE 'load.doctor%'") == 0) {
+                long started = System.nanoTime();
+                insert(connection, statement);
+                System.out.printf("Seeded clinic in %.1fs%n", (System.nanoTime() - started) / 1e9);
+            } else {
+                System.out.println("Reusing existing load-test clinic");
+            }
+            Clinic clinic = new Clinic(
+                    count(statement, "SELECT min(id) FROM doctors WHERE email LIKE 'load.doctor%'"),
+                    (int) count(statement, "SELECT count(*) FROM doctors WHERE email LIKE 'load.doctor%'"),
+                    count(statement, "SELECT min(id) FROM patients WHERE email LIKE 'load.patient%'"),
+                    (int) count(statement, "SELECT count(*) FROM patients WHERE email LIKE 'load.patient%'"),
+                    count(statement, "SELECT coalesce(max(id), 0) FROM appointments"));
+            System.out.printf("Clinic: %d doctors, %d patients, %d appointments%n", clinic.doctorCount(),
+                    clinic.patientCount(), count(statement, "SELECT count(*) FROM appointments"));
+            return clinic;
+        }
+    }
+
+    /** Deletes appointments booked by a previous run so every run starts from the seeded state. */
+    void resetBookings(Clinic clinic) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM appointments WHERE id > " + clinic.lastSeededAppointmentId());
+        }
+    }
+
+    private void insert(Connection connection, Statement statement) throws Exception {
+        connection.setAutoCommit(false);
+        try (PreparedStatement setSeed = connection.prepareStatement("SELECT setseed(?)")) {
+            setSeed.setDouble(1, (settings.seed % 1000) / 1000.0);
+            setSeed.execute();
+        }
+
+        statement.execute("INSERT INTO doctors (name, specialty, email, password, phone) "
+                + "SELECT (" + array(FIRST_NAMES) + ")[1 + i % " + FIRST_NAMES.size() + "] || ' ' || "
+                + "(" + array(LAST_NAMES) + ")[1 + (i / " + FIRST_NAMES.size() + ") % " + LAST_NAMES.size() + "], "
+                + "(" + array(SPECIALTIES) + ")[1 + i % " + SPECIALTIES.size() + "], "
+                + "'load.doctor' || i || '@clinic.test', '" + PASSWORD + "', lpad((5550000000 + i)::text, 10, '0') "
+                + "FROM generate_series(1, " + settings.doctors + ") i");
+        try (PreparedStatement schedule = connection.prepareStatement("UPDATE doctors SET schedule = "
+                + "(ARRAY[?, ?, ?, ?])[1 + id % 4] WHERE email LIKE 'load.doctor%'")) {
+            for (int rest = 0; rest < 4; rest++) {
+                List<String> times = new ArrayList<>();
+                for (int h = 0; h < 8; h++) {
+                    if ((rest + h) % 4 != 0) times.add(LocalTime.of(9 + h, 0).toString());
+                }
+                schedule.setBytes(rest + 1, WeeklySchedule.everyDay(times).toBytes());
+            }
+            schedule.executeUpdate();
+        }
+        statement.execute("INSERT INTO patients (name, email, password, phone, address) "
+                + "SELECT 'Patient ' || i, 'load.patient' || i || '@clinic.test', '" + PASSWORD + "', "
+                + "lpad((7000000000 + i)::text, 10, '0'), i || ' Main Street' "
+                + "FROM generate_series(1, " + settings.patients + ") i");
+        long firstPatient = count(statement, "SELECT min(id) FROM patients WHERE email LIKE 'load.patient%'");
+        statement.execute("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status, condition) "
+                + "SELECT doc.id, " + firstPatient + " + floor(random() * " + settings.patients + ")::bigint, "
+                + "current_date + d + time '09:00' + (h || ' hours')::interval, CASE WHEN d < 0 THEN 1 ELSE 0 END, 'checkup' "
+                + "FROM doctors doc CROSS JOIN generate_series(0, 7) h "
+                + "CROSS JOIN generate_series(-" + settings.pastDays + ", " + settings.futureDays + ") d "
+                + "WHERE doc.email LIKE 'load.doctor%' AND (doc.id + h) % 4 <> 0 AND random() < " + settings.fill);
+        connection.commit();
+        connection.setAutoCommit(true);
+        for (String table : List.of("doctors", "patients", "appointments")) {
+            statement.execute("ANALYZE " + table);
+        }
+    }
+
+    private static long count(Statement statement, String sql) throws Exception {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String array(List<String> values) {
+        return "ARRAY['" + String.join("','", values) + "']";
+    }
+
+    record Clinic(long firstDoctorId, int doctorCount, long firstPatientId, int patientCount, long lastSeededAppointmentId) {}
+}
@@ -0,0 +1,52 @@
+package com.project.back_end.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects raw response times for one endpoint. Each worker owns its own recorders,
+ * which are merged once the run is over, so recording needs no synchronization.
+ */
+final class LatencyRecorder {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long elapsedNanos, boolean ok) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = elapsedNanos;
+        if (!ok) errors++;
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    void sort() {
+        Arrays.sort(nanos, 0, count);
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    /** Nearest-rank percentile in milliseconds; call {@link #sort()} first. */
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return nanos[Math.max(0, Math.min(count, rank) - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,247 @@
+package com.project.back_end.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.back_end.BackEndApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Boots the application against an embedded Postgres (or the database given by {@code loadtest.jdbcUrl}),
+ * seeds a clinic and drives a fixed mix of HTTP traffic, reporting throughput and latency percentiles
+ * per endpoint. {@code loadtest.modes=platform,virtual} repeats the run once per request-thread mode against the
+ * same data. Every knob is a system property; see {@link Settings}.
+ * <p>
+ * Virtual mode needs Java 21+ and refuses to start on an older JVM rather than quietly measuring platform threads.
+ * It records {@code jdk.VirtualThreadPinned} events with JFR; the count, total pinned time and the most frequent
+ * application frames go into the run's {@code pinning} entry and the recording is kept next to the results.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        List<String> modes = settings.modes();
+        if (modes.contains("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("loadtest.modes=virtual needs Java 21+, this JVM is Java " + Runtime.version().feature());
+        }
+        EmbeddedPostgres embedded = null;
+        String jdbcUrl = settings.jdbcUrl;
+        String user = settings.user;
+        String password = settings.password;
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+            user = "postgres";
+            password = "";
+        }
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, Object> runs = new LinkedHashMap<>();
+        try {
+            ClinicSeeder seeder = new ClinicSeeder(jdbcUrl, user, password, settings);
+            ClinicSeeder.Clinic clinic = null;
+            for (String mode : modes) {
+                if (clinic != null) {
+                    seeder.resetBookings(clinic);
+                }
+                try (ConfigurableApplicationContext context = start(mode, jdbcUrl, user, password)) {
+                    if (clinic == null) {
+                        clinic = seeder.seed();
+                    }
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    System.out.printf("%n== %s threads ==%n", mode);
+                    TrafficDriver driver = new TrafficDriver("http://localhost:" + port, clinic, settings);
+                    if ("virtual".equals(mode)) {
+                        try (Recording pinning = recordPinning(settings)) {
+                            Map<String, Object> run = new LinkedHashMap<>(report(settings, driver.run()));
+                            run.put("pinning", pinning(settings, pinning));
+                            runs.put(mode, run);
+                        }
+                    } else {
+                        runs.put(mode, report(settings, driver.run()));
+                    }
+                }
+            }
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+        write(settings, runs);
+    }
+
+    private static ConfigurableApplicationContext start(String mode, String jdbcUrl, String user, String password)
+            throws IOException {
+        Path data = Files.createTempDirectory("loadtest-" + mode);
+        return new SpringApplicationBuilder(BackEndApplication.class).run(
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + user,
+                "--spring.datasource.password=" + password,
+                "--spring.profiles.active=" + ("virtual".equals(mode) ? "virtual-threads" : "default"),
+                "--server.port=0",
+                "--appointments.status.journal=" + data.resolve("appointment-status.journal"),
+                "--appointments.journal.dir=" + data.resolve("journal"),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+    }
+
+    private static Recording recordPinning(Settings settings) {
+        Recording recording = new Recording();
+        recording.enable("jdk.VirtualThreadPinned")
+                .withThreshold(Duration.ofMillis(settings.pinnedThresholdMs))
+                .withStackTrace();
+        recording.start();
+        return recording;
+    }
+
+    /** Stops the recording, keeps it beside the results and summarizes pinned virtual threads by application frame. */
+    private static Map<String, Object> pinning(Settings settings, Recording recording) throws IOException {
+        recording.stop();
+        Path file = Path.of(settings.output).toAbsolutePath().resolveSibling("loadtest-virtual-pinned.jfr");
+        Files.createDirectories(file.getParent());
+        recording.dump(file);
+
+        long events = 0;
+        Duration pinned = Duration.ZERO;
+        Map<String, Long> frames = new TreeMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            events++;
+            pinned = pinned.plus(event.getDuration());
+            frames.merge(applicationFrame(event), 1L, Long::sum);
+        }
+        Map<String, Long> top = frames.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(5)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        System.out.printf("%npinned virtual threads (>= %d ms): %d events, %d ms total%n",
+                settings.pinnedThresholdMs, events, pinned.toMillis());
+        top.forEach((frame, count) -> System.out.printf("  %6d  %s%n", count, frame));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("events", events);
+        result.put("pinnedMs", pinned.toMillis());
+        result.put("topFrames", top);
+        result.put("recording", file.toString());
+        return result;
+    }
+
+    /** The innermost frame outside the JDK, which is where the carrier got pinned from the application's view. */
+    private static String applicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(no stack trace)";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "(JDK only)";
+    }
+
+    private static Map<String, Object> report(Settings settings, Map<String, LatencyRecorder> results) {
+        double seconds = settings.duration.toMillis() / 1000.0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-28s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, LatencyRecorder> entry : results.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            recorder.sort();
+            double throughput = recorder.count() / seconds;
+            System.out.printf("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), recorder.count(),
+                    recorder.errors(), throughput, recorder.percentileMillis(50), recorder.percentileMillis(95),
+                    recorder.percentileMillis(99), recorder.percentileMillis(100));
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", recorder.count());
+            stats.put("errors", recorder.errors());
+            stats.put("throughput", throughput);
+            stats.put("p50Ms", recorder.percentileMillis(50));
+            stats.put("p95Ms", recorder.percentileMillis(95));
+            stats.put("p99Ms", recorder.percentileMillis(99));
+            stats.put("maxMs", recorder.percentileMillis(100));
+            endpoints.put(entry.getKey(), stats);
+        }
+        return endpoints;
+    }
+
+    private static void write(Settings settings, Map<String, Object> runs) throws Exception {
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("settings", settings.describe());
+        output.put("runs", runs);
+        File file = new File(settings.output);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, output);
+        System.out.println("Results written to " + file);
+    }
+
+    static final class Settings {
+        final String jdbcUrl = System.getProperty("loadtest.jdbcUrl");
+        final String user = System.getProperty("loadtest.user", "postgres");
+        final String password = System.getProperty("loadtest.password", "");
+        final int doctors = Integer.getInteger("loadtest.doctors", 2000);
+        final int patients = Integer.getInteger("loadtest.patients", 50000);
+        final int pastDays = Integer.getInteger("loadtest.pastDays", 300);
+        final int futureDays = Integer.getInteger("loadtest.futureDays", 60);
+        final double fill = Double.parseDouble(System.getProperty("loadtest.fill", "0.5"));
+        final int threads = Integer.getInteger("loadtest.threads", 32);
+        final Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 30L));
+        final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 120L));
+        final long seed = Long.getLong("loadtest.seed", 42L);
+        final String mix = System.getProperty("loadtest.mix",
+                "login=5,doctorFilter=25,availability=20,book=10,doctorDay=20,patientFilter=20");
+        final String modes = System.getProperty("loadtest.modes", "platform");
+        final long pinnedThresholdMs = Long.getLong("loadtest.pinnedThresholdMs", 20L);
+        final String output = System.getProperty("loadtest.output", "target/loadtest-result.json");
+
+        static Settings fromSystemProperties() {
+            return new Settings();
+        }
+
+        List<String> modes() {
+            List<String> result = Arrays.stream(modes.split(",")).map(String::trim).toList();
+            for (String mode : result) {
+                if (!"platform".equals(mode) && !"virtual".equals(mode)) {
+                    throw new IllegalArgumentException("Unknown mode in loadtest.modes: " + mode);
+                }
+            }
+            return result;
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("database", jdbcUrl != null ? "external" : "embedded");
+            result.put("doctors", doctors);
+            result.put("patients", patients);
+            result.put("pastDays", pastDays);
+            result.put("futureDays", futureDays);
+            result.put("fill", fill);
+            result.put("threads", threads);
+            result.put("warmupSeconds", warmup.toSeconds());
+            result.put("durationSeconds", duration.toSeconds());
+            result.put("seed", seed);
+            result.put("mix", mix);
+            result.put("pinnedThresholdMs", pinnedThresholdMs);
+            result.put("java", Runtime.version().feature());
+            return result;
+        }
+    }
+}
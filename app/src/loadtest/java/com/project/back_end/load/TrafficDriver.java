@@ -0,0 +1,211 @@
+package com.project.back_end.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Closed-loop traffic: each worker thread logs in as one patient and one doctor, then issues requests
+ * back to back, picking the endpoint from the weighted mix. Requests completed during warm-up are discarded.
+ */
+final class TrafficDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] NAME_QUERIES = {"null", "smith", "mary", "jo", "an", "garcia"};
+    private static final String[] TIME_QUERIES = {"null", "AM", "PM"};
+    private static final String[] SPECIALTY_QUERIES = {"null", "Cardiology", "Neurology", "ology", "Pediatrics"};
+    private static final String[] LAST_NAMES_LOWER = ClinicSeeder.LAST_NAMES.stream()
+            .map(String::toLowerCase).toArray(String[]::new);
+
+    private final String baseUrl;
+    private final ClinicSeeder.Clinic clinic;
+    private final LoadTest.Settings settings;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final List<String> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+
+    TrafficDriver(String baseUrl, ClinicSeeder.Clinic clinic, LoadTest.Settings settings) {
+        this.baseUrl = baseUrl;
+        this.clinic = clinic;
+        this.settings = settings;
+        String[] entries = settings.mix.split(",");
+        cumulativeWeights = new int[entries.length];
+        int total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].trim().split("=");
+            operations.add(parts[0]);
+            total += Integer.parseInt(parts[1]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Map<String, LatencyRecorder> run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + settings.warmup.toNanos();
+        long deadline = measureFrom + settings.duration.toNanos();
+        List<Worker> workers = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(settings.threads);
+        System.out.printf("Driving %d workers: %ds warm-up, %ds measured%n", settings.threads,
+                settings.warmup.toSeconds(), settings.duration.toSeconds());
+        for (int i = 0; i < settings.threads; i++) {
+            Worker worker = new Worker(i, measureFrom, deadline, done);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        for (String operation : operations) {
+            merged.put(operation, new LatencyRecorder());
+        }
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw new IllegalStateException("Worker failed", worker.failure);
+            }
+            worker.recorders.forEach((name, recorder) -> merged.get(name).merge(recorder));
+        }
+        return merged;
+    }
+
+    private final class Worker implements Runnable {
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long deadline;
+        private final CountDownLatch done;
+        private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        private final long patientId;
+        private final long doctorId;
+        private String patientToken;
+        private String doctorToken;
+        private volatile Throwable failure;
+
+        private Worker(int index, long measureFrom, long deadline, CountDownLatch done) {
+            this.random = new SplittableRandom(settings.seed * 31 + index);
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            this.done = done;
+            this.patientId = clinic.firstPatientId() + random.nextInt(clinic.patientCount());
+            this.doctorId = clinic.firstDoctorId() + random.nextInt(clinic.doctorCount());
+            for (String operation : operations) {
+                recorders.put(operation, new LatencyRecorder());
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                patientToken = login("/patient/login", patientEmail(patientId));
+                doctorToken = login("/doctor/login", "load.doctor" + (doctorId - clinic.firstDoctorId() + 1) + "@clinic.test");
+                while (true) {
+                    String operation = pick();
+                    long started = System.nanoTime();
+                    if (started >= deadline) break;
+                    int status = execute(operation);
+                    long finished = System.nanoTime();
+                    if (started >= measureFrom) {
+                        boolean ok = status / 100 == 2 || ("book".equals(operation) && status == 409);
+                        recorders.get(operation).record(finished - started, ok);
+                    }
+                }
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private String pick() {
+            int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (roll < cumulativeWeights[i]) return operations.get(i);
+            }
+            throw new IllegalStateException();
+        }
+
+        private int execute(String operation) throws Exception {
+            switch (operation) {
+                case "login":
+                    return post("/patient/login", loginBody(patientEmail(patientId))).statusCode();
+                case "doctorFilter":
+                    return get("/doctor/filter/" + any(NAME_QUERIES) + "/" + any(TIME_QUERIES) + "/" + any(SPECIALTY_QUERIES));
+                case "availability":
+                    return get("/doctor/availability/patient/" + randomDoctor() + "/" + futureDate() + "/" + patientToken);
+                case "book":
+                    return post("/appointment/" + patientToken, bookingBody()).statusCode();
+                case "doctorDay":
+                    LocalDate day = LocalDate.now().plusDays(random.nextInt(-settings.pastDays, settings.futureDays + 1));
+                    return get("/appointment/" + doctorId + "/" + day + "/null/" + doctorToken);
+                case "patientFilter":
+                    String condition = random.nextBoolean() ? "past" : "future";
+                    String name = random.nextInt(3) == 0 ? any(LAST_NAMES_LOWER) : "null";
+                    return get("/patient/filter/" + condition + "/" + name + "/" + patientToken);
+                default:
+                    throw new IllegalArgumentException("Unknown operation in loadtest.mix: " + operation);
+            }
+        }
+
+        private String login(String path, String email) throws Exception {
+            HttpResponse<String> response = post(path, loginBody(email));
+            JsonNode body = MAPPER.readTree(response.body());
+            if (response.statusCode() != 200 || !body.hasNonNull("token")) {
+                throw new IllegalStateException("Login failed for " + email + ": " + response.body());
+            }
+            return body.get("token").asText();
+        }
+
+        private String bookingBody() {
+            LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(settings.futureDays));
+            int hour = 9 + random.nextInt(8);
+            return String.format("{\"doctor\":{\"id\":%d},\"patient\":{\"id\":%d},\"appointmentTime\":\"%sT%02d:00:00\",\"status\":0}",
+                    randomDoctor(), patientId, date, hour);
+        }
+
+        private long randomDoctor() {
+            return clinic.firstDoctorId() + random.nextInt(clinic.doctorCount());
+        }
+
+        private LocalDate futureDate() {
+            return LocalDate.now().plusDays(random.nextInt(settings.futureDays + 1));
+        }
+
+        private String any(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+
+        private String patientEmail(long id) {
+            return "load.patient" + (id - clinic.firstPatientId() + 1) + "@clinic.test";
+        }
+    }
+
+    private static String loginBody(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + ClinicSeeder.PASSWORD + "\"}";
+    }
+
+    private int get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -21,6 +21,22 @@ public class AppointmentDTO {
 
     public AppointmentDTO() {}
 
+    public AppointmentDTO(Long id, Long doctorId, String doctorName, Long patientId, String patientName,
+                          String patientEmail, String patientPhone, String patientAddress,
+                          LocalDateTime appointmentTime, int status, String condition) {
+        this.id = id;
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.patientId = patientId;
+        this.patientName = patientName;
+        this.patientEmail = patientEmail;
+        this.patientPhone = patientPhone;
+        this.patientAddress = patientAddress;
+        this.appointmentTime = appointmentTime;
+        this.status = status;
+        this.condition = condition;
+    }
+
     public AppointmentDTO(Appointment appointment) {
         this.id = appointment.getId();
         this.doctorId = appointment.getDoctor().getId();
@@ -0,0 +1,69 @@
+package com.project.back_end.DTO;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public class AppointmentSeriesRequest {
+
+    @NotNull
+    private Long doctorId;
+
+    @NotNull
+    @Future(message = "First appointment must be in the future")
+    private LocalDateTime firstAppointmentTime;
+
+    @Min(1)
+    @Max(52)
+    private int occurrences;
+
+    @Min(1)
+    @Max(12)
+    private int intervalWeeks = 1;
+
+    private String condition;
+
+    public AppointmentSeriesRequest() {}
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public LocalDateTime getFirstAppointmentTime() {
+        return firstAppointmentTime;
+    }
+
+    public void setFirstAppointmentTime(LocalDateTime firstAppointmentTime) {
+        this.firstAppointmentTime = firstAppointmentTime;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public int getIntervalWeeks() {
+        return intervalWeeks;
+    }
+
+    public void setIntervalWeeks(int intervalWeeks) {
+        this.intervalWeeks = intervalWeeks;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.DTO;
+
+import java.time.Instant;
+
+public class AuthPrincipal {
+
+    private final String email;
+    private final String role;
+    private final Long id;
+    private final Instant expiresAt;
+
+    public AuthPrincipal(String email, String role, Long id, Instant expiresAt) {
+        this.email = email;
+        this.role = role;
+        this.id = id;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+public class AvailableSlot {
+
+    private final Long doctorId;
+    private final String doctorName;
+    private final String specialty;
+    private final LocalDateTime appointmentTime;
+
+    public AvailableSlot(Long doctorId, String doctorName, String specialty, LocalDateTime appointmentTime) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.specialty = specialty;
+        this.appointmentTime = appointmentTime;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+}
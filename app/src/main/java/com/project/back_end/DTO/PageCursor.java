@@ -0,0 +1,47 @@
+package com.project.back_end.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over {@code (appointmentTime, id)}.
+ */
+public class PageCursor {
+
+    public static final PageCursor START = new PageCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+
+    private final LocalDateTime appointmentTime;
+    private final Long id;
+
+    public PageCursor(LocalDateTime appointmentTime, Long id) {
+        this.appointmentTime = appointmentTime;
+        this.id = id;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = appointmentTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.services.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import java.util.Map;
+
+@Component
+public class AuthInterceptor implements HandlerInterceptor {
+
+    public static final String PRINCIPAL_ATTRIBUTE = AuthInterceptor.class.getName() + ".principal";
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    public AuthInterceptor(TokenService tokenService, ObjectMapper objectMapper) {
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RequiresRole requiresRole = handlerMethod.getMethodAnnotation(RequiresRole.class);
+        if (requiresRole == null) {
+            return true;
+        }
+
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String token = variables != null ? variables.get("token") : null;
+        String role = requiresRole.roleVariable().isEmpty() ? requiresRole.value()
+                : variables != null ? variables.get(requiresRole.roleVariable()) : null;
+
+        AuthPrincipal principal = tokenService.resolvePrincipal(token, role);
+        if (principal == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Invalid or expired token"));
+            return false;
+        }
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        return true;
+    }
+}
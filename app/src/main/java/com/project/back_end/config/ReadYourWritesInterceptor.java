@@ -0,0 +1,64 @@
+package com.project.back_end.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.back_end.DTO.AuthPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import java.time.Duration;
+
+/**
+ * Keeps a caller on the primary while replica reads could miss their own writes. Requests other than
+ * GET and HEAD run entirely on the primary; afterwards the caller's reads stay there for the
+ * read-your-writes window, which should exceed the replica's usual replay lag.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(@Value("${spring.datasource.replica.read-your-writes-window:5s}") Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (isWrite(request) || recentWriters.getIfPresent(caller(request)) != null) {
+            ReplicaRouting.pin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        ReplicaRouting.unpin();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (isWrite(request)) {
+            recentWriters.put(caller(request), Boolean.TRUE);
+        }
+        ReplicaRouting.unpin();
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static String caller(HttpServletRequest request) {
+        Object principal = request.getAttribute(AuthInterceptor.PRINCIPAL_ATTRIBUTE);
+        return principal instanceof AuthPrincipal auth ? auth.getRole() + ":" + auth.getId() : "ip:" + request.getRemoteAddr();
+    }
+}
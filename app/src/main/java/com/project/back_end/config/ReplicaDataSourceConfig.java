@@ -0,0 +1,67 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to a Postgres replica when {@code spring.datasource.replica.url} is set.
+ * The application's data source defers fetching a connection until the first statement, by which time the
+ * transaction has marked it read-only; read-only connections come from the replica unless
+ * {@link ReplicaRouting} pins the thread to the primary. Everything else, including Flyway, uses the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${spring.datasource.replica.url:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${spring.datasource.replica.url}") String url,
+                                              @Value("${spring.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${spring.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        AbstractRoutingDataSource reads = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return ReplicaRouting.isPinnedToPrimary() ? "primary" : "replica";
+            }
+        };
+        reads.setTargetDataSources(Map.of("primary", primary, "replica", replica));
+        reads.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(reads);
+        return dataSource;
+    }
+}
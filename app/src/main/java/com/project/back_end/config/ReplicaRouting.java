@@ -0,0 +1,38 @@
+package com.project.back_end.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread switch consulted when a read-only transaction needs a connection: unless the thread is pinned
+ * to the primary, it reads from the replica. Without a configured replica every connection comes from
+ * the primary and the pin has no effect.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReplicaRouting() {}
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    /** Runs {@code work} against the primary, for reads whose result must include every committed write. */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) PINNED.remove();
+        }
+    }
+
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED.remove();
+    }
+}
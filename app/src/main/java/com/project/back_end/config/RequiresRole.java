@@ -0,0 +1,19 @@
+package com.project.back_end.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose {@code {token}} path variable must resolve to a principal of the given role.
+ * When {@link #roleVariable()} is set, the role is read from that path variable instead.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresRole {
+
+    String value() default "";
+
+    String roleVariable() default "";
+}
@@ -0,0 +1,66 @@
+package com.project.back_end.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for doctors, backed by in-process Caffeine caches behind JCache: the
+ * {@code doctors} entity region and the {@code doctor-emails} natural-id region. Entries are Hibernate's
+ * immutable disassembled state, so they are stored by reference. Each region reports Caffeine's cache
+ * metrics and a {@code hibernate.cache.hit.ratio} gauge.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> REGIONS = List.of("doctors", "doctor-emails");
+
+    @Value("${doctors.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${doctors.cache.ttl:1h}")
+    private Duration ttl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(MeterRegistry meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setStoreByValue(false);
+            configuration.setNativeStatisticsEnabled(true);
+            javax.cache.Cache<Object, Object> cache = cacheManager.getCache(region);
+            if (cache == null) {
+                cache = cacheManager.createCache(region, configuration);
+            }
+            com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, region);
+            Gauge.builder("hibernate.cache.hit.ratio", nativeCache, c -> c.stats().hitRate())
+                    .description("Share of second-level cache lookups served from memory")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
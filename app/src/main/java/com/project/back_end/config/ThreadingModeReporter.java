@@ -0,0 +1,31 @@
+package com.project.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeReporter.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int feature = Runtime.version().feature();
+        if (virtualThreadsRequested && feature < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the JVM is Java {}; virtual threads need Java 21+, "
+                    + "so requests still run on platform threads", feature);
+        } else {
+            log.info("Request threads: {}, JDBC pool size: {}", virtualThreadsRequested ? "virtual" : "platform", poolSize);
+        }
+    }
+}
@@ -4,12 +4,24 @@ package com.project.back_end.config;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull; 
 
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final AuthInterceptor authInterceptor;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    public WebConfig(AuthInterceptor authInterceptor, ReadYourWritesInterceptor readYourWritesInterceptor) {
+        this.authInterceptor = authInterceptor;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         // Allow CORS for all endpoints
@@ -18,4 +30,17 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE")  // Specify allowed methods
                 .allowedHeaders("*");  // You can restrict headers if needed
     }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Resolve the caller once per request for @RequiresRole handlers
+        registry.addInterceptor(authInterceptor);
+        // Runs after authentication so writes are attributed to the caller
+        registry.addInterceptor(readYourWritesInterceptor);
+    }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new AuthPrincipalArgumentResolver());
+    }
 }
@@ -1,9 +1,17 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.RequiresRole;
+import com.project.back_end.services.BulkImportService;
 import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -11,13 +19,39 @@ import java.util.Map;
 public class AdminController {
 
     private final Service service;
+    private final TokenService tokenService;
+    private final BulkImportService bulkImportService;
 
-    public AdminController(Service service) {
+    public AdminController(Service service, TokenService tokenService, BulkImportService bulkImportService) {
         this.service = service;
+        this.tokenService = tokenService;
+        this.bulkImportService = bulkImportService;
     }
 
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> adminLogin(@RequestBody Login login) {
         return service.validateAdmin(login);
     }
+
+    @GetMapping("/tokenCache/{token}")
+    @RequiresRole("admin")
+    public ResponseEntity<?> tokenCacheStats(@PathVariable String token) {
+        return new ResponseEntity<>(tokenService.getCacheStats(), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/import/{type}/{token}", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @RequiresRole("admin")
+    public ResponseEntity<Map<String, Object>> bulkImport(@PathVariable String type, @PathVariable String token,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        if ("patients".equals(type)) {
+            return bulkImportService.importPatients(body, csv);
+        } else if ("doctors".equals(type)) {
+            return bulkImportService.importDoctors(body, csv);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Unknown import type: " + type);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
 }
@@ -1,16 +1,21 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AppointmentSeriesRequest;
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.AppointmentStream;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service;
-import com.project.back_end.services.TokenService;
-import com.project.back_end.models.Patient;
-import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -23,106 +28,125 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
     private final Service service;
     private final PatientService patientService;
-    private final TokenService tokenService;
-    private final PatientRepository patientRepository;
-
-    public AppointmentController(AppointmentService appointmentService, Service service,
-                                  PatientService patientService, TokenService tokenService,
-                                  PatientRepository patientRepository) {
+    private final AppointmentStream appointmentStream;
+    private final Counter bookingsCreated;
+    private final Counter bookingsInvalidDoctor;
+    private final Counter bookingsConflict;
+    private final Counter bookingsFailed;
+
+    public AppointmentController(AppointmentService appointmentService, Service service, PatientService patientService,
+                                  AppointmentStream appointmentStream, MeterRegistry meterRegistry) {
         this.appointmentService = appointmentService;
         this.service = service;
         this.patientService = patientService;
-        this.tokenService = tokenService;
-        this.patientRepository = patientRepository;
+        this.appointmentStream = appointmentStream;
+        this.bookingsCreated = bookingCounter(meterRegistry, "created");
+        this.bookingsInvalidDoctor = bookingCounter(meterRegistry, "invalid_doctor");
+        this.bookingsConflict = bookingCounter(meterRegistry, "slot_conflict");
+        this.bookingsFailed = bookingCounter(meterRegistry, "error");
     }
 
     @GetMapping("/{doctorId}/{date}/{patientName}/{token}")
+    @RequiresRole("doctor")
     public ResponseEntity<?> getAppointments(@PathVariable Long doctorId, @PathVariable String date,
-                                              @PathVariable String patientName, @PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "doctor");
-        if (validation != null) return validation;
-
+                                              @PathVariable String patientName, @PathVariable String token,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit) {
         LocalDate localDate = LocalDate.parse(date);
         String name = "null".equals(patientName) ? null : patientName;
-        return appointmentService.getAppointments(doctorId, localDate, name);
+        return appointmentService.getAppointments(doctorId, localDate, name, cursor, limit);
+    }
+
+    @GetMapping(value = "/stream/{doctorId}/{date}/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresRole("doctor")
+    public ResponseEntity<SseEmitter> streamAppointments(@PathVariable Long doctorId, @PathVariable String date,
+                                                         @PathVariable String token, AuthPrincipal principal) {
+        if (!principal.getId().equals(doctorId)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(appointmentStream.subscribe(doctorId, LocalDate.parse(date)));
     }
 
     @PostMapping("/{token}")
+    @RequiresRole("patient")
     public ResponseEntity<Map<String, String>> bookAppointment(@Valid @RequestBody Appointment appointment,
                                                                 @PathVariable String token) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "patient");
-        if (validation != null) return validation;
-
         int validationResult = service.validateAppointment(appointment.getDoctor().getId(),
-                appointment.getAppointmentTime().toLocalTime());
+                appointment.getAppointmentTime());
         if (validationResult == -1) {
+            bookingsInvalidDoctor.increment();
             response.put("error", "Invalid doctor ID");
             return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
         } else if (validationResult == 0) {
+            bookingsConflict.increment();
             response.put("error", "Time slot not available");
             return new ResponseEntity<>(response, HttpStatus.CONFLICT);
         }
 
         int result = appointmentService.bookAppointment(appointment);
         if (result == 1) {
+            bookingsCreated.increment();
             response.put("message", "Appointment booked successfully");
             return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } else if (result == -1) {
+            bookingsConflict.increment();
+            response.put("error", "Time slot not available");
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
         } else {
+            bookingsFailed.increment();
             response.put("error", "Error booking appointment");
             return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @PostMapping("/series/{token}")
+    @RequiresRole("patient")
+    public ResponseEntity<Map<String, Object>> bookSeries(@Valid @RequestBody AppointmentSeriesRequest series,
+                                                          @PathVariable String token, AuthPrincipal principal) {
+        return appointmentService.bookSeries(series, principal.getId());
+    }
+
     @PutMapping("/{appointmentId}/{doctorId}/{token}")
+    @RequiresRole("patient")
     public ResponseEntity<?> updateAppointment(@PathVariable Long appointmentId, @PathVariable Long doctorId,
-                                                @RequestBody Map<String, String> body, @PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "patient");
-        if (validation != null) return validation;
-
+                                                @RequestBody Map<String, String> body, @PathVariable String token,
+                                                AuthPrincipal principal) {
         LocalDateTime newTime = LocalDateTime.parse(body.get("appointmentTime"));
-        return appointmentService.updateAppointment(appointmentId, doctorId, newTime, token);
+        return appointmentService.updateAppointment(appointmentId, doctorId, newTime, principal.getId());
     }
 
     @DeleteMapping("/{appointmentId}/{token}")
+    @RequiresRole("patient")
     public ResponseEntity<Map<String, String>> cancelAppointment(@PathVariable Long appointmentId,
-                                                                  @PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "patient");
-        if (validation != null) return validation;
-        return appointmentService.cancelAppointment(appointmentId, token);
+                                                                  @PathVariable String token,
+                                                                  AuthPrincipal principal) {
+        return appointmentService.cancelAppointment(appointmentId, principal.getId());
     }
 
     @PutMapping("/status/{appointmentId}/{status}/{token}")
+    @RequiresRole("doctor")
     public ResponseEntity<Map<String, String>> changeStatus(@PathVariable Long appointmentId,
                                                              @PathVariable int status,
                                                              @PathVariable String token) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "doctor");
-        if (validation != null) return validation;
-
         appointmentService.changeStatus(appointmentId, status);
         response.put("message", "Status updated successfully");
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @GetMapping("/patient/{token}")
-    public ResponseEntity<?> getPatientAppointments(@PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "patient");
-        if (validation != null) return validation;
+    @RequiresRole("patient")
+    public ResponseEntity<?> getPatientAppointments(@PathVariable String token, AuthPrincipal principal,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit) {
+        return patientService.getPatientAppointment(principal.getId(), cursor, limit);
+    }
 
-        try {
-            String email = tokenService.extractEmail(token);
-            Patient patient = patientRepository.findByEmail(email);
-            if (patient == null) {
-                Map<String, String> response = new HashMap<>();
-                response.put("error", "Patient not found");
-                return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
-            }
-            return patientService.getPatientAppointment(patient.getId());
-        } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
-            response.put("error", "Error fetching appointments");
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    private static Counter bookingCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("appointments.bookings")
+                .description("Appointment booking attempts by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
     }
 }
@@ -1,13 +1,21 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.services.DoctorCatalog;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.ResourceVersion;
 import com.project.back_end.services.Service;
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +25,8 @@ import java.util.Map;
 @RequestMapping("${api.path}doctor")
 public class DoctorController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final DoctorService doctorService;
     private final Service service;
 
@@ -26,30 +36,84 @@ public class DoctorController {
     }
 
     @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
+    @RequiresRole(roleVariable = "user")
     public ResponseEntity<?> getDoctorAvailability(@PathVariable String user, @PathVariable Long doctorId,
-                                                   @PathVariable String date, @PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, user);
-        if (validation != null) return validation;
-
+                                                   @PathVariable String date, @PathVariable String token,
+                                                   WebRequest request) {
         LocalDate localDate = LocalDate.parse(date);
+        if (!doctorService.isWithinBookingHorizon(localDate)) {
+            return beyondHorizon();
+        }
+        ResourceVersion version = doctorService.getDoctorAvailabilityVersion(doctorId, localDate).weak();
+        if (isNotModified(request, version)) {
+            return notModified();
+        }
         List<String> availability = doctorService.getDoctorAvailability(doctorId, localDate);
         Map<String, Object> response = new HashMap<>();
         response.put("availability", availability);
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
     }
 
-    @GetMapping
-    public ResponseEntity<Map<String, Object>> getDoctor() {
+    @GetMapping("/availability/{user}/{doctorId}/{from}/{to}/{token}")
+    @RequiresRole(roleVariable = "user")
+    public ResponseEntity<?> getDoctorAvailabilityRange(@PathVariable String user, @PathVariable Long doctorId,
+                                                        @PathVariable String from, @PathVariable String to,
+                                                        @PathVariable String token, WebRequest request) {
+        LocalDate fromDate = LocalDate.parse(from);
+        LocalDate toDate = LocalDate.parse(to);
+        int maxDays = doctorService.getMaxAvailabilityRangeDays();
+        if (toDate.isBefore(fromDate) || !toDate.isBefore(fromDate.plusDays(maxDays))) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Range must cover 1 to " + maxDays + " days");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        if (!doctorService.isWithinBookingHorizon(toDate)) {
+            return beyondHorizon();
+        }
+        ResourceVersion version = doctorService.getDoctorAvailabilityVersion(doctorId, fromDate, toDate).weak();
+        if (isNotModified(request, version)) {
+            return notModified();
+        }
+        Map<LocalDate, List<String>> availability = doctorService.getDoctorAvailability(doctorId, fromDate, toDate);
+        Map<String, Object> response = new HashMap<>();
+        response.put("availability", availability);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/earliest/{user}/{specialty}/{time}/{token}")
+    @RequiresRole(roleVariable = "user")
+    public ResponseEntity<Map<String, Object>> findEarliestSlots(@PathVariable String user, @PathVariable String specialty,
+                                                                 @PathVariable String time, @PathVariable String token,
+                                                                 @RequestParam(required = false) Integer days,
+                                                                 @RequestParam(required = false) Integer limit) {
         Map<String, Object> response = new HashMap<>();
-        response.put("doctors", doctorService.getDoctors());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        response.put("slots", doctorService.findEarliestSlots(specialty, time, days, limit));
+        return ResponseEntity.ok(response);
+    }
+
+    /** Tomcat will not compress a response with a strong etag, so the catalog carries its own gzip body. */
+    @GetMapping
+    public ResponseEntity<Resource> getDoctor(WebRequest request) {
+        DoctorCatalog.Snapshot catalog = doctorService.getDoctorCatalog();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (isNotModified(request, catalog.version(gzip))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        return gzip
+                ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.body(true))
+                : response.body(catalog.body(false));
     }
 
     @PostMapping("/{token}")
+    @RequiresRole("admin")
     public ResponseEntity<Map<String, String>> saveDoctor(@Valid @RequestBody Doctor doctor, @PathVariable String token) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "admin");
-        if (validation != null) return validation;
 
         int result = doctorService.saveDoctor(doctor);
         if (result == -1) {
@@ -70,10 +134,9 @@ public class DoctorController {
     }
 
     @PutMapping("/{token}")
+    @RequiresRole("admin")
     public ResponseEntity<Map<String, String>> updateDoctor(@Valid @RequestBody Doctor doctor, @PathVariable String token) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "admin");
-        if (validation != null) return validation;
 
         int result = doctorService.updateDoctor(doctor);
         if (result == -1) {
@@ -89,10 +152,9 @@ public class DoctorController {
     }
 
     @DeleteMapping("/{doctorId}/{token}")
+    @RequiresRole("admin")
     public ResponseEntity<Map<String, String>> deleteDoctor(@PathVariable Long doctorId, @PathVariable String token) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "admin");
-        if (validation != null) return validation;
 
         int result = doctorService.deleteDoctor(doctorId);
         if (result == -1) {
@@ -109,10 +171,28 @@ public class DoctorController {
 
     @GetMapping("/filter/{name}/{time}/{speciality}")
     public ResponseEntity<Map<String, Object>> filter(@PathVariable String name, @PathVariable String time,
-                                                       @PathVariable String speciality) {
+                                                       @PathVariable String speciality, WebRequest request) {
+        if (isNotModified(request, doctorService.getDoctorCatalog().version(false).weak())) {
+            return notModified();
+        }
         Map<String, Object> response = new HashMap<>();
         List<Doctor> doctors = service.filterDoctor(name, speciality, time);
         response.put("doctors", doctors);
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
+    }
+
+    /** Sets ETag and Last-Modified on the response and checks them against the request's conditional headers. */
+    private static boolean isNotModified(WebRequest request, ResourceVersion version) {
+        return request.checkNotModified(version.etag(), version.lastModified());
+    }
+
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+
+    private ResponseEntity<Map<String, String>> beyondHorizon() {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Availability is only published " + doctorService.getBookingHorizonDays() + " days ahead");
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 }
@@ -1,6 +1,8 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AuthPrincipal;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Patient;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service;
@@ -24,10 +26,9 @@ public class PatientController {
     }
 
     @GetMapping("/{token}")
-    public ResponseEntity<?> getPatient(@PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "patient");
-        if (validation != null) return validation;
-        return patientService.getPatientDetails(token);
+    @RequiresRole("patient")
+    public ResponseEntity<?> getPatient(@PathVariable String token, AuthPrincipal principal) {
+        return patientService.getPatientDetails(principal.getId());
     }
 
     @PostMapping
@@ -53,23 +54,22 @@ public class PatientController {
     }
 
     @GetMapping("/appointments/{patientId}/{token}/{user}")
+    @RequiresRole(roleVariable = "user")
     public ResponseEntity<?> getPatientAppointment(@PathVariable Long patientId, @PathVariable String token,
-                                                   @PathVariable String user) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, user);
-        if (validation != null) return validation;
-        return patientService.getPatientAppointment(patientId);
+                                                   @PathVariable String user,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        return patientService.getPatientAppointment(patientId, cursor, limit);
     }
 
     @GetMapping("/filter/{condition}/{name}/{token}")
+    @RequiresRole("patient")
     public ResponseEntity<Map<String, Object>> filterPatientAppointment(@PathVariable String condition,
                                                                          @PathVariable String name,
-                                                                         @PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "patient");
-        if (validation != null) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Invalid or expired token");
-            return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
-        }
-        return service.filterPatient(token, condition, name);
+                                                                         @PathVariable String token,
+                                                                         AuthPrincipal principal,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer limit) {
+        return service.filterPatient(principal.getId(), condition, name, cursor, limit);
     }
 }
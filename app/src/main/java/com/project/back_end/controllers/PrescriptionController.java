@@ -1,43 +1,69 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.PrescriptionService;
-import com.project.back_end.services.Service;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("${api.path}prescription")
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
-    private final Service service;
     private final AppointmentService appointmentService;
 
-    public PrescriptionController(PrescriptionService prescriptionService, Service service,
-                                   AppointmentService appointmentService) {
+    public PrescriptionController(PrescriptionService prescriptionService, AppointmentService appointmentService) {
         this.prescriptionService = prescriptionService;
-        this.service = service;
         this.appointmentService = appointmentService;
     }
 
     @PostMapping("/{token}")
+    @RequiresRole("doctor")
     public ResponseEntity<?> savePrescription(@Valid @RequestBody Prescription prescription,
                                                @PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "doctor");
-        if (validation != null) return validation;
-
         appointmentService.changeStatus(prescription.getAppointmentId(), 1);
         return prescriptionService.savePrescription(prescription);
     }
 
     @GetMapping("/{appointmentId}/{token}")
+    @RequiresRole("doctor")
     public ResponseEntity<?> getPrescription(@PathVariable Long appointmentId, @PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "doctor");
-        if (validation != null) return validation;
         return prescriptionService.getPrescription(appointmentId);
     }
+
+    @GetMapping("/batch/{token}")
+    @RequiresRole("doctor")
+    public ResponseEntity<?> getPrescriptions(@RequestParam Set<Long> appointmentIds, @PathVariable String token,
+                                              AuthPrincipal principal) {
+        return prescriptionService.getPrescriptions(principal.getId(), appointmentIds);
+    }
+
+    @GetMapping("/{doctorId}/{date}/{token}")
+    @RequiresRole("doctor")
+    public ResponseEntity<?> getPrescriptions(@PathVariable Long doctorId, @PathVariable String date,
+                                              @PathVariable String token, AuthPrincipal principal) {
+        Map<String, String> response = new HashMap<>();
+        if (!principal.getId().equals(doctorId)) {
+            response.put("error", "Unauthorized to view another doctor's prescriptions");
+            return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+        }
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            response.put("error", "Date must be in yyyy-MM-dd format");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        return prescriptionService.getPrescriptions(doctorId, day);
+    }
 }
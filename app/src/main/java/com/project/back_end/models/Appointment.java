@@ -1,5 +1,6 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
@@ -8,19 +9,20 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments",
+        uniqueConstraints = @UniqueConstraint(name = "uq_appointments_doctor_time", columnNames = {"doctor_id", "appointment_time"}))
 public class Appointment {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id")
     @NotNull
     private Doctor doctor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id")
     @NotNull
     private Patient patient;
@@ -34,6 +36,10 @@ public class Appointment {
 
     private String condition;
 
+    @Version
+    @JsonIgnore
+    private Long version;
+
     public Appointment() {}
 
     public Appointment(Doctor doctor, Patient patient, LocalDateTime appointmentTime, int status, String condition) {
@@ -92,6 +98,14 @@ public class Appointment {
         this.condition = condition;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Transient
     public LocalDateTime getEndTime() {
         return appointmentTime != null ? appointmentTime.plusHours(1) : null;
@@ -1,12 +1,19 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.util.List;
 
 @Entity
 @Table(name = "doctors")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
+@NaturalIdCache(region = "doctor-emails")
 public class Doctor {
 
     @Id
@@ -23,6 +30,7 @@ public class Doctor {
 
     @NotNull
     @Email
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String email;
 
@@ -35,10 +43,11 @@ public class Doctor {
     @Pattern(regexp = "^[0-9]{10}$")
     private String phone;
 
-    @ElementCollection
-    @CollectionTable(name = "doctor_available_times", joinColumns = @JoinColumn(name = "doctor_id"))
-    @Column(name = "time_slot")
-    private List<String> availableTimes;
+    @NotNull
+    @JsonIgnore
+    @Convert(converter = WeeklyScheduleConverter.class)
+    @Column(nullable = false)
+    private WeeklySchedule schedule = WeeklySchedule.EMPTY;
 
     public Doctor() {}
 
@@ -48,7 +57,7 @@ public class Doctor {
         this.email = email;
         this.password = password;
         this.phone = phone;
-        this.availableTimes = availableTimes;
+        setAvailableTimes(availableTimes);
     }
 
     public Long getId() {
@@ -99,11 +108,19 @@ public class Doctor {
         this.phone = phone;
     }
 
+    public WeeklySchedule getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(WeeklySchedule schedule) {
+        this.schedule = schedule;
+    }
+
     public List<String> getAvailableTimes() {
-        return availableTimes;
+        return schedule.getTimes();
     }
 
     public void setAvailableTimes(List<String> availableTimes) {
-        this.availableTimes = availableTimes;
+        this.schedule = WeeklySchedule.everyDay(availableTimes);
     }
 }
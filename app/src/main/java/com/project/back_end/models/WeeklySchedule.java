@@ -0,0 +1,187 @@
+package com.project.back_end.models;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable weekly availability: one minute-of-day bitmap per weekday.
+ * Persisted as a single bytea column; an empty array is an empty schedule, a leading 0 byte is
+ * followed by one bitmap shared by every weekday and a leading 1 byte by seven bitmaps, Monday first.
+ */
+public final class WeeklySchedule {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+    public static final int NOON = 12 * 60;
+    public static final WeeklySchedule EMPTY = new WeeklySchedule(new long[WORDS], true);
+
+    private static final byte UNIFORM = 0;
+    private static final byte PER_DAY = 1;
+
+    private final long[][] days = new long[7][];
+    private final boolean uniform;
+    private final boolean morning;
+    private final boolean afternoon;
+    private final List<String> times;
+
+    private WeeklySchedule(long[] everyDay, boolean uniform) {
+        Arrays.fill(days, everyDay);
+        this.uniform = uniform;
+        this.morning = any(everyDay, 0, NOON);
+        this.afternoon = any(everyDay, NOON, MINUTES_PER_DAY);
+        this.times = format(everyDay);
+    }
+
+    private WeeklySchedule(long[][] perDay) {
+        long[] union = new long[WORDS];
+        for (int d = 0; d < 7; d++) {
+            days[d] = perDay[d];
+            for (int w = 0; w < WORDS; w++) union[w] |= perDay[d][w];
+        }
+        this.uniform = false;
+        this.morning = any(union, 0, NOON);
+        this.afternoon = any(union, NOON, MINUTES_PER_DAY);
+        this.times = format(union);
+    }
+
+    /** The same "HH:mm" slots on every day of the week. */
+    public static WeeklySchedule everyDay(Collection<String> slots) {
+        if (slots == null || slots.isEmpty()) {
+            return EMPTY;
+        }
+        long[] bits = new long[WORDS];
+        for (String slot : slots) {
+            int minute = parseSlot(slot);
+            if (minute < 0) {
+                throw new IllegalArgumentException("Invalid time slot: " + slot);
+            }
+            bits[minute >>> 6] |= 1L << minute;
+        }
+        return new WeeklySchedule(bits, true);
+    }
+
+    /** Minute of day for an "HH:mm" slot, or -1 if it is not a whole-minute time. */
+    public static int parseSlot(String slot) {
+        try {
+            LocalTime time = LocalTime.parse(slot.trim());
+            return time.getSecond() == 0 && time.getNano() == 0 ? time.getHour() * 60 + time.getMinute() : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    public static WeeklySchedule fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return EMPTY;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format == UNIFORM) {
+            return new WeeklySchedule(readDay(buffer), true);
+        }
+        if (format != PER_DAY) {
+            throw new IllegalArgumentException("Unknown schedule format: " + format);
+        }
+        long[][] perDay = new long[7][];
+        for (int d = 0; d < 7; d++) perDay[d] = readDay(buffer);
+        return new WeeklySchedule(perDay);
+    }
+
+    public byte[] toBytes() {
+        if (isEmpty()) {
+            return new byte[0];
+        }
+        int dayCount = uniform ? 1 : 7;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + dayCount * WORDS * Long.BYTES);
+        buffer.put(uniform ? UNIFORM : PER_DAY);
+        for (int d = 0; d < dayCount; d++) {
+            for (long word : days[d]) buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    public boolean isAvailable(LocalDateTime time) {
+        LocalTime clock = time.toLocalTime();
+        if (clock.getSecond() != 0 || clock.getNano() != 0) {
+            return false;
+        }
+        return isAvailable(time.getDayOfWeek(), clock.getHour() * 60 + clock.getMinute());
+    }
+
+    public boolean isAvailable(DayOfWeek day, int minuteOfDay) {
+        return minuteOfDay >= 0 && minuteOfDay < MINUTES_PER_DAY
+                && (days[day.ordinal()][minuteOfDay >>> 6] & (1L << minuteOfDay)) != 0;
+    }
+
+    /** Word {@code index} of the day's bitmap; bit {@code m % 64} of word {@code m / 64} is minute {@code m}. */
+    public long word(DayOfWeek day, int index) {
+        return days[day.ordinal()][index];
+    }
+
+    public boolean hasMorning() {
+        return morning;
+    }
+
+    public boolean hasAfternoon() {
+        return afternoon;
+    }
+
+    public boolean isEmpty() {
+        return times.isEmpty();
+    }
+
+    /** Every "HH:mm" slot offered on at least one day, in order. */
+    public List<String> getTimes() {
+        return times;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WeeklySchedule other)) return false;
+        return Arrays.deepEquals(days, other.days);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(days);
+    }
+
+    @Override
+    public String toString() {
+        return uniform ? "every day " + times : "weekly " + times;
+    }
+
+    private static long[] readDay(ByteBuffer buffer) {
+        long[] bits = new long[WORDS];
+        for (int w = 0; w < WORDS; w++) bits[w] = buffer.getLong();
+        return bits;
+    }
+
+    private static boolean any(long[] bits, int from, int to) {
+        for (int minute = from; minute < to; minute++) {
+            if ((bits[minute >>> 6] & (1L << minute)) != 0) return true;
+        }
+        return false;
+    }
+
+    private static List<String> format(long[] bits) {
+        List<String> result = new ArrayList<>();
+        for (int w = 0; w < WORDS; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                int minute = (w << 6) + Long.numberOfTrailingZeros(word);
+                result.add(LocalTime.of(minute / 60, minute % 60).toString());
+                word &= word - 1;
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
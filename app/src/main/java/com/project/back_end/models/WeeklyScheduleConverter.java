@@ -0,0 +1,18 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class WeeklyScheduleConverter implements AttributeConverter<WeeklySchedule, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(WeeklySchedule schedule) {
+        return schedule != null ? schedule.toBytes() : new byte[0];
+    }
+
+    @Override
+    public WeeklySchedule convertToEntityAttribute(byte[] bytes) {
+        return WeeklySchedule.fromBytes(bytes);
+    }
+}
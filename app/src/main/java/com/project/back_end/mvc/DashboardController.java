@@ -1,7 +1,6 @@
 package com.project.back_end.mvc;
 
-import com.project.back_end.models.Doctor;
-import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.DTO.AuthPrincipal;
 import com.project.back_end.services.Service;
 import com.project.back_end.services.TokenService;
 import org.springframework.http.ResponseEntity;
@@ -16,12 +15,10 @@ public class DashboardController {
 
     private final Service service;
     private final TokenService tokenService;
-    private final DoctorRepository doctorRepository;
 
-    public DashboardController(Service service, TokenService tokenService, DoctorRepository doctorRepository) {
+    public DashboardController(Service service, TokenService tokenService) {
         this.service = service;
         this.tokenService = tokenService;
-        this.doctorRepository = doctorRepository;
     }
 
     @GetMapping("/adminDashboard/{token}")
@@ -36,16 +33,10 @@ public class DashboardController {
 
     @GetMapping("/doctorDashboard/{token}")
     public String doctorDashboard(@PathVariable String token, Model model) {
-        ResponseEntity<Map<String, String>> validation = service.validateToken(token, "doctor");
-        if (validation == null) {
+        AuthPrincipal principal = tokenService.resolvePrincipal(token, "doctor");
+        if (principal != null) {
             model.addAttribute("token", token);
-            try {
-                String email = tokenService.extractEmail(token);
-                Doctor doctor = doctorRepository.findByEmail(email);
-                model.addAttribute("doctorId", doctor != null ? doctor.getId() : 0);
-            } catch (Exception e) {
-                model.addAttribute("doctorId", 0);
-            }
+            model.addAttribute("doctorId", principal.getId());
             return "doctorDashboard";
         }
         return "redirect:/";
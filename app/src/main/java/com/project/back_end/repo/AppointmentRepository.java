@@ -1,6 +1,9 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.BookedSlot;
 import com.project.back_end.models.Appointment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,34 +11,66 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH d.availableTimes WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end")
-    List<Appointment> findByDoctorIdAndAppointmentTimeBetween(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    String SELECT_DTO = "SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address,"
+            + " a.appointmentTime, a.status, a.condition) FROM Appointment a JOIN a.doctor d JOIN a.patient p";
 
-    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p WHERE d.id = :doctorId AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) AND a.appointmentTime BETWEEN :start AND :end")
-    List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(@Param("doctorId") Long doctorId, @Param("patientName") String patientName, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    String AFTER_CURSOR = " AND a.appointmentTime >= :afterTime AND (a.appointmentTime > :afterTime OR a.id > :afterId)"
+            + " ORDER BY a.appointmentTime, a.id";
+
+    @Query("SELECT new com.project.back_end.DTO.BookedSlot(a.doctor.id, a.appointmentTime) FROM Appointment a"
+            + " WHERE a.doctor.id IN :doctorIds AND a.appointmentTime BETWEEN :start AND :end")
+    List<BookedSlot> findBookedSlotsByDoctorIdInAndAppointmentTimeBetween(@Param("doctorIds") Collection<Long> doctorIds, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM Appointment a WHERE a.doctor.id = :doctorId")
     void deleteAllByDoctorId(@Param("doctorId") Long doctorId);
 
-    List<Appointment> findByPatientId(Long patientId);
+    @Query(SELECT_DTO + " WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end" + AFTER_CURSOR)
+    List<AppointmentDTO> findPageByDoctorIdAndAppointmentTimeBetween(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                                     @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId, Pageable page);
+
+    @Query(SELECT_DTO + " WHERE d.id = :doctorId AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) AND a.appointmentTime BETWEEN :start AND :end" + AFTER_CURSOR)
+    List<AppointmentDTO> findPageByDoctorIdAndPatientNameAndAppointmentTimeBetween(@Param("doctorId") Long doctorId, @Param("patientName") String patientName,
+                                                                                   @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                                                   @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId, Pageable page);
+
+    @Query(SELECT_DTO + " WHERE d.id = :doctorId")
+    List<AppointmentDTO> findDtosByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(SELECT_DTO + " WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end ORDER BY a.appointmentTime, a.id")
+    List<AppointmentDTO> findDtosByDoctorIdAndAppointmentTimeBetween(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query(SELECT_DTO + " WHERE d.id = :doctorId AND a.appointmentTime IN :times")
+    List<AppointmentDTO> findDtosByDoctorIdAndAppointmentTimeIn(@Param("doctorId") Long doctorId, @Param("times") Collection<LocalDateTime> times);
+
+    @Query(SELECT_DTO + " WHERE a.id = :id")
+    AppointmentDTO findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + " WHERE p.id = :patientId" + AFTER_CURSOR)
+    List<AppointmentDTO> findPageByPatientId(@Param("patientId") Long patientId, @Param("afterTime") LocalDateTime afterTime,
+                                             @Param("afterId") Long afterId, Pageable page);
 
-    List<Appointment> findByPatient_IdAndStatusOrderByAppointmentTimeAsc(Long patientId, int status);
+    @Query(SELECT_DTO + " WHERE p.id = :patientId AND a.status = :status" + AFTER_CURSOR)
+    List<AppointmentDTO> findPageByPatientIdAndStatus(@Param("patientId") Long patientId, @Param("status") int status,
+                                                      @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId, Pageable page);
 
-    @Query("SELECT a FROM Appointment a WHERE LOWER(a.doctor.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND a.patient.id = :patientId")
-    List<Appointment> filterByDoctorNameAndPatientId(@Param("doctorName") String doctorName, @Param("patientId") Long patientId);
+    @Query(SELECT_DTO + " WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND p.id = :patientId" + AFTER_CURSOR)
+    List<AppointmentDTO> findPageByDoctorNameAndPatientId(@Param("doctorName") String doctorName, @Param("patientId") Long patientId,
+                                                          @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId, Pageable page);
 
-    @Query("SELECT a FROM Appointment a WHERE LOWER(a.doctor.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND a.patient.id = :patientId AND a.status = :status")
-    List<Appointment> filterByDoctorNameAndPatientIdAndStatus(@Param("doctorName") String doctorName, @Param("patientId") Long patientId, @Param("status") int status);
+    @Query(SELECT_DTO + " WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND p.id = :patientId AND a.status = :status" + AFTER_CURSOR)
+    List<AppointmentDTO> findPageByDoctorNameAndPatientIdAndStatus(@Param("doctorName") String doctorName, @Param("patientId") Long patientId, @Param("status") int status,
+                                                                   @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId, Pageable page);
 
     @Modifying
     @Transactional
-    @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
-    void updateStatus(@Param("status") int status, @Param("id") long id);
+    @Query("UPDATE Appointment a SET a.status = :status, a.version = a.version + 1 WHERE a.id IN :ids")
+    int updateStatuses(@Param("status") int status, @Param("ids") Collection<Long> ids);
 }
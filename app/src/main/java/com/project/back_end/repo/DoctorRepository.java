@@ -1,14 +1,18 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.WeeklySchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-    Doctor findByEmail(String email);
-    List<Doctor> findByNameContainingIgnoreCase(String name);
-    List<Doctor> findBySpecialtyContainingIgnoreCase(String specialty);
-    List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase(String name, String specialty);
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, DoctorRepositoryCustom {
+    @Query("SELECT d.schedule FROM Doctor d WHERE d.id = :doctorId")
+    WeeklySchedule findScheduleById(@Param("doctorId") Long doctorId);
+
+    @Query("SELECT d.email FROM Doctor d")
+    List<String> findAllEmails();
 }
@@ -0,0 +1,9 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+
+public interface DoctorRepositoryCustom {
+
+    /** Resolved through the natural-id cache, so repeated lookups of the same email skip the database. */
+    Doctor findByEmail(String email);
+}
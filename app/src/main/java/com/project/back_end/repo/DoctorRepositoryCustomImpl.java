@@ -0,0 +1,19 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+public class DoctorRepositoryCustomImpl implements DoctorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Doctor findByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Doctor.class).load(email);
+    }
+}
@@ -2,10 +2,18 @@ package com.project.back_end.repo;
 
 import com.project.back_end.models.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Patient findByEmail(String email);
     Patient findByEmailOrPhone(String email, String phone);
+
+    @Query("SELECT p.email FROM Patient p")
+    List<String> findAllEmails();
+
+    @Query("SELECT p.phone FROM Patient p")
+    List<String> findAllPhones();
 }
@@ -2,10 +2,22 @@ package com.project.back_end.repo;
 
 import com.project.back_end.models.Prescription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
     List<Prescription> findByAppointmentId(Long appointmentId);
+
+    @Query("SELECT p FROM Prescription p JOIN Appointment a ON a.id = p.appointmentId"
+            + " WHERE a.doctor.id = :doctorId AND p.appointmentId IN :appointmentIds ORDER BY p.appointmentId, p.id")
+    List<Prescription> findByDoctorIdAndAppointmentIdIn(@Param("doctorId") Long doctorId, @Param("appointmentIds") Collection<Long> appointmentIds);
+
+    @Query("SELECT p FROM Prescription p JOIN Appointment a ON a.id = p.appointmentId"
+            + " WHERE a.doctor.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end ORDER BY a.appointmentTime, a.id, p.id")
+    List<Prescription> findByDoctorIdAndAppointmentTimeBetween(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
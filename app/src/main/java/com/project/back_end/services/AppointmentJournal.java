@@ -0,0 +1,342 @@
+package com.project.back_end.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of committed appointment changes in memory-mapped segment files.
+ * Every record is {@value #RECORD_BYTES} bytes and carries a sequence number and a CRC, so a torn tail is
+ * detected on startup and overwritten. Segments are preallocated, named after their first sequence and
+ * rotated when full. Appends only write to memory: the scheduled {@link #force()} flushes the active and any
+ * retired segments, maps the next segment ahead of rotation and deletes the oldest segments beyond
+ * {@code appointments.journal.max-segments}. {@link #reader(long)} tails the journal from any sequence still on disk.
+ */
+@Component
+public class AppointmentJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentJournal.class);
+    public static final int RECORD_BYTES = 64;
+    private static final int CRC_OFFSET = 56;
+    private static final String SUFFIX = ".journal";
+
+    public enum Type { BOOKED, RESCHEDULED, CANCELLED, STATUS }
+
+    /** Doctor, patient and time are 0 and null on {@link Type#STATUS} records, which only know the appointment. */
+    public record Event(long sequence, long recordedAt, Type type, long appointmentId, long doctorId, long patientId,
+                        LocalDateTime appointmentTime, int status) {}
+
+    @Value("${appointments.journal.dir:data/journal}")
+    private Path directory;
+
+    @Value("${appointments.journal.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${appointments.journal.max-segments:16}")
+    private int maxSegments;
+
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final Queue<MappedByteBuffer> retired = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private MappedByteBuffer active;
+    private long activeFirst;
+    private Segment next;
+    private volatile long lastSequence;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+        }
+        dropEmptyTail();
+        if (segments.isEmpty()) {
+            activeFirst = 1;
+            active = map(segment(1));
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            activeFirst = last.getKey();
+            active = map(last.getValue());
+        }
+        long sequence = activeFirst - 1;
+        while (active.remaining() >= RECORD_BYTES && isValid(active, active.position(), sequence + 1)) {
+            sequence++;
+            active.position(active.position() + RECORD_BYTES);
+        }
+        lastSequence = sequence;
+        prepareNextSegment();
+    }
+
+    /** Appends the change once the surrounding transaction commits, or right away outside one. */
+    public void record(Type type, Long appointmentId, Long doctorId, Long patientId, LocalDateTime appointmentTime, int status) {
+        Runnable append = () -> append(type, appointmentId, doctorId, patientId, appointmentTime, status);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append.run();
+            }
+        });
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /** A reader positioned at {@code fromSequence}, or at the oldest record still on disk if that is later. */
+    public Reader reader(long fromSequence) {
+        return new Reader(Math.max(fromSequence, segments.isEmpty() ? 1 : segments.firstKey()));
+    }
+
+    /** Flushes written records to disk, then readies the next segment and drops segments beyond the limit. */
+    @Scheduled(fixedDelayString = "${appointments.journal.force-interval:1s}")
+    public void force() {
+        forceWritten();
+        prepareNextSegment();
+        dropOldSegments();
+    }
+
+    @PreDestroy
+    public void close() {
+        forceWritten();
+    }
+
+    private void forceWritten() {
+        MappedByteBuffer current;
+        appendLock.lock();
+        try {
+            current = active;
+        } finally {
+            appendLock.unlock();
+        }
+        for (MappedByteBuffer buffer; (buffer = retired.poll()) != null; ) {
+            buffer.force();
+        }
+        current.force();
+    }
+
+    private void append(Type type, Long appointmentId, Long doctorId, Long patientId,
+                        LocalDateTime appointmentTime, int status) {
+        appendLock.lock();
+        try {
+            write(type, appointmentId, doctorId, patientId, appointmentTime, status);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void write(Type type, Long appointmentId, Long doctorId, Long patientId,
+                       LocalDateTime appointmentTime, int status) {
+        long sequence = lastSequence + 1;
+        if (active.remaining() < RECORD_BYTES) {
+            rotate(sequence);
+        }
+        int offset = active.position();
+        active.putLong(offset, sequence)
+                .putLong(offset + 8, System.currentTimeMillis())
+                .putLong(offset + 16, value(appointmentId))
+                .putLong(offset + 24, value(doctorId))
+                .putLong(offset + 32, value(patientId))
+                .putLong(offset + 40, appointmentTime != null ? appointmentTime.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE)
+                .putInt(offset + 48, status)
+                .put(offset + 52, (byte) type.ordinal())
+                .putInt(offset + CRC_OFFSET, crc(active, offset));
+        active.position(offset + RECORD_BYTES);
+        lastSequence = sequence;
+    }
+
+    /**
+     * Switches to the segment starting at {@code sequence}. The full segment is forced by the next {@link #force()};
+     * the new one is normally mapped already and only falls back to mapping here if no force ran since the last rotation.
+     */
+    private void rotate(long sequence) {
+        retired.add(active);
+        Segment prepared = next;
+        next = null;
+        if (prepared == null || prepared.first() != sequence) {
+            prepared = new Segment(sequence, file(sequence), null);
+        }
+        active = prepared.buffer() != null ? prepared.buffer() : map(prepared.file());
+        activeFirst = sequence;
+        segments.put(sequence, prepared.file());
+    }
+
+    /** Maps the segment after the active one outside the append lock, so rotation does no file work. */
+    private void prepareNextSegment() {
+        long first;
+        appendLock.lock();
+        try {
+            if (next != null) {
+                return;
+            }
+            first = activeFirst + active.capacity() / RECORD_BYTES;
+        } finally {
+            appendLock.unlock();
+        }
+        Path file = file(first);
+        MappedByteBuffer buffer = map(file);
+        appendLock.lock();
+        try {
+            if (next == null && activeFirst + active.capacity() / RECORD_BYTES == first) {
+                next = new Segment(first, file, buffer);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** Deletes the oldest segments beyond {@code max-segments}; readers still inside one keep their mapping. */
+    private void dropOldSegments() {
+        while (segments.size() > Math.max(maxSegments, 1)) {
+            Map.Entry<Long, Path> oldest = segments.pollFirstEntry();
+            try {
+                Files.deleteIfExists(oldest.getValue());
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", oldest.getValue(), e);
+            }
+        }
+    }
+
+    /**
+     * Deletes trailing segments without a valid first record: a segment mapped ahead of rotation, or one that was
+     * rotated to just before a crash. The segment before it is full, so appends continue with a fresh rotation.
+     */
+    private void dropEmptyTail() throws IOException {
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            if (isValid(map(last.getValue()), 0, last.getKey())) {
+                return;
+            }
+            segments.remove(last.getKey());
+            Files.delete(last.getValue());
+        }
+    }
+
+    private Path segment(long firstSequence) {
+        Path file = file(firstSequence);
+        segments.put(firstSequence, file);
+        return file;
+    }
+
+    private Path file(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+    }
+
+    private MappedByteBuffer map(Path file) {
+        long size = segmentSize.toBytes() / RECORD_BYTES * RECORD_BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isValid(ByteBuffer buffer, int offset, long expectedSequence) {
+        return buffer.getLong(offset) == expectedSequence && buffer.getInt(offset + CRC_OFFSET) == crc(buffer, offset);
+    }
+
+    private static int crc(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static long value(Long id) {
+        return id != null ? id : 0;
+    }
+
+    private record Segment(long first, Path file, MappedByteBuffer buffer) {}
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /** Sequential reader over the journal; not thread-safe, but any number can tail the journal at once. */
+    public final class Reader {
+
+        private long next;
+        private long segmentFirst = -1;
+        private ByteBuffer segment;
+
+        private Reader(long next) {
+            this.next = next;
+        }
+
+        /** Up to {@code max} events after the last one returned; empty once the reader has caught up. */
+        public List<Event> poll(int max) {
+            List<Event> events = new ArrayList<>();
+            long last = lastSequence;
+            while (events.size() < max && next <= last) {
+                int offset = offsetOf(next);
+                if (!isValid(segment, offset, next)) {
+                    throw new IllegalStateException("Corrupt journal record " + next + " in " + segments.get(segmentFirst));
+                }
+                events.add(new Event(next, segment.getLong(offset + 8), Type.values()[segment.get(offset + 52)],
+                        segment.getLong(offset + 16), segment.getLong(offset + 24), segment.getLong(offset + 32),
+                        time(segment.getLong(offset + 40)), segment.getInt(offset + 48)));
+                next++;
+            }
+            return events;
+        }
+
+        public long nextSequence() {
+            return next;
+        }
+
+        /** Stays on the mapped segment while the sequence is in it, even if retention has deleted the file since. */
+        private int offsetOf(long sequence) {
+            if (segment == null || sequence < segmentFirst || sequence - segmentFirst >= segment.capacity() / RECORD_BYTES) {
+                Map.Entry<Long, Path> entry = segments.floorEntry(sequence);
+                if (entry == null) {
+                    throw new IllegalStateException("Journal record " + sequence + " is no longer on disk");
+                }
+                try (FileChannel channel = FileChannel.open(entry.getValue(), StandardOpenOption.READ)) {
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } catch (NoSuchFileException e) {
+                    throw new IllegalStateException("Journal record " + sequence + " is no longer on disk", e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                segmentFirst = entry.getKey();
+            }
+            return Math.toIntExact((sequence - segmentFirst) * RECORD_BYTES);
+        }
+
+        private static LocalDateTime time(long epochSecond) {
+            return epochSecond == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.PageCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs keyset-paginated appointment queries ordered by {@code (appointmentTime, id)}.
+ * Queries project straight into {@link AppointmentDTO}; one extra row is fetched to decide
+ * whether a next cursor exists.
+ */
+@Component
+public class AppointmentPager {
+
+    @Value("${appointments.page.default-size:100}")
+    private int defaultSize;
+
+    @Value("${appointments.page.max-size:200}")
+    private int maxSize;
+
+    private final AppointmentStatusQueue appointmentStatusQueue;
+
+    public AppointmentPager(AppointmentStatusQueue appointmentStatusQueue) {
+        this.appointmentStatusQueue = appointmentStatusQueue;
+    }
+
+    public Map<String, Object> page(String cursor, Integer limit, PageQuery query) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = limit == null || limit <= 0 ? defaultSize : Math.min(limit, maxSize);
+
+        List<AppointmentDTO> rows = query.fetch(after.getAppointmentTime(), after.getId(), PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("appointments", appointmentStatusQueue.overlay(rows));
+        if (hasNext) {
+            AppointmentDTO last = rows.get(rows.size() - 1);
+            response.put("nextCursor", new PageCursor(last.getAppointmentTime(), last.getId()).encode());
+        } else {
+            response.put("nextCursor", null);
+        }
+        return response;
+    }
+
+    @FunctionalInterface
+    public interface PageQuery {
+        List<AppointmentDTO> fetch(LocalDateTime afterTime, Long afterId, Pageable page);
+    }
+}
@@ -1,59 +1,131 @@
 package com.project.back_end.services;
 
 import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentSeriesRequest;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
-import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
-import com.project.back_end.repo.PatientRepository;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class AppointmentService {
 
+    private static final String SLOT_CONSTRAINT = "uq_appointments_doctor_time";
+
     private final AppointmentRepository appointmentRepository;
-    private final TokenService tokenService;
-    private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
-
-    public AppointmentService(AppointmentRepository appointmentRepository, TokenService tokenService,
-                              PatientRepository patientRepository, DoctorRepository doctorRepository) {
+    private final SlotInventory slotInventory;
+    private final AppointmentPager appointmentPager;
+    private final JdbcTemplate jdbcTemplate;
+    private final AppointmentStream appointmentStream;
+    private final AppointmentStatusQueue appointmentStatusQueue;
+    private final AppointmentJournal appointmentJournal;
+
+    public AppointmentService(AppointmentRepository appointmentRepository, DoctorRepository doctorRepository,
+                              SlotInventory slotInventory, AppointmentPager appointmentPager, JdbcTemplate jdbcTemplate,
+                              AppointmentStream appointmentStream, AppointmentStatusQueue appointmentStatusQueue,
+                              AppointmentJournal appointmentJournal) {
         this.appointmentRepository = appointmentRepository;
-        this.tokenService = tokenService;
-        this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
+        this.slotInventory = slotInventory;
+        this.appointmentPager = appointmentPager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.appointmentStream = appointmentStream;
+        this.appointmentStatusQueue = appointmentStatusQueue;
+        this.appointmentJournal = appointmentJournal;
     }
 
     @Transactional
     public int bookAppointment(Appointment appointment) {
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime time = appointment.getAppointmentTime();
+        if (!slotInventory.reserve(doctorId, time)) {
+            return -1;
+        }
         try {
             appointmentRepository.save(appointment);
+            appointmentStream.booked(doctorId, List.of(time));
+            appointmentJournal.record(AppointmentJournal.Type.BOOKED, appointment.getId(), doctorId,
+                    appointment.getPatient().getId(), time, appointment.getStatus());
             return 1;
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (isSlotConflict(e)) {
+                slotInventory.invalidateDay(doctorId, time.toLocalDate());
+                return -1;
+            }
+            return 0;
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return 0;
         }
     }
 
     @Transactional
-    public ResponseEntity<Map<String, Object>> updateAppointment(Long appointmentId, Long doctorId, LocalDateTime newTime, String token) {
+    public ResponseEntity<Map<String, Object>> bookSeries(AppointmentSeriesRequest series, Long patientId) {
         Map<String, Object> response = new HashMap<>();
+        List<LocalDateTime> times = new ArrayList<>(series.getOccurrences());
+        for (int i = 0; i < series.getOccurrences(); i++) {
+            times.add(series.getFirstAppointmentTime().plusWeeks((long) i * series.getIntervalWeeks()));
+        }
+
+        if (slotInventory.checkSlot(series.getDoctorId(), times.get(0)) == -1) {
+            response.put("error", "Invalid doctor ID");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        List<LocalDateTime> conflicts = slotInventory.reserveAll(series.getDoctorId(), times);
+        if (!conflicts.isEmpty()) {
+            response.put("error", "Some time slots are not available");
+            response.put("conflicts", conflicts);
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        }
+
         try {
-            String email = tokenService.extractEmail(token);
-            Patient patient = patientRepository.findByEmail(email);
-            if (patient == null) {
-                response.put("error", "Patient not found");
-                return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+            jdbcTemplate.batchUpdate("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status, condition) VALUES (?, ?, ?, 0, ?)",
+                    times, times.size(), (ps, time) -> {
+                        ps.setLong(1, series.getDoctorId());
+                        ps.setLong(2, patientId);
+                        ps.setTimestamp(3, Timestamp.valueOf(time));
+                        ps.setString(4, series.getCondition());
+                    });
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (!isSlotConflict(e)) {
+                response.put("error", "Error booking appointment series");
+                return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
             }
+            times.forEach(time -> slotInventory.invalidateDay(series.getDoctorId(), time.toLocalDate()));
+            response.put("error", "Some time slots are not available");
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        }
+        appointmentStream.booked(series.getDoctorId(), times);
+        for (AppointmentDTO booked : appointmentRepository.findDtosByDoctorIdAndAppointmentTimeIn(series.getDoctorId(), times)) {
+            appointmentJournal.record(AppointmentJournal.Type.BOOKED, booked.getId(), booked.getDoctorId(),
+                    booked.getPatientId(), booked.getAppointmentTime(), booked.getStatus());
+        }
+        response.put("message", "Appointment series booked successfully");
+        response.put("appointmentTimes", times);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
 
+    @Transactional
+    public ResponseEntity<Map<String, Object>> updateAppointment(Long appointmentId, Long doctorId, LocalDateTime newTime, Long patientId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
             Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
             if (appointmentOpt.isEmpty()) {
                 response.put("error", "Appointment not found");
@@ -61,7 +133,7 @@ public class AppointmentService {
             }
 
             Appointment appointment = appointmentOpt.get();
-            if (!appointment.getPatient().getId().equals(patient.getId())) {
+            if (!appointment.getPatient().getId().equals(patientId)) {
                 response.put("error", "Unauthorized to update this appointment");
                 return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
             }
@@ -72,29 +144,51 @@ public class AppointmentService {
                 return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
             }
 
+            Long oldDoctorId = appointment.getDoctor().getId();
+            LocalDateTime oldTime = appointment.getAppointmentTime();
+            if (!oldDoctorId.equals(doctorId) || !oldTime.equals(newTime)) {
+                if (!slotInventory.reserve(doctorId, newTime)) {
+                    response.put("error", "Time slot not available");
+                    return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+                }
+                slotInventory.release(oldDoctorId, oldTime);
+            }
+
             appointment.setDoctor(doctorOpt.get());
             appointment.setAppointmentTime(newTime);
-            appointmentRepository.save(appointment);
+            appointmentRepository.saveAndFlush(appointment);
+            if (!oldDoctorId.equals(doctorId) || !oldTime.equals(newTime)) {
+                appointmentStream.rescheduled(appointmentId, oldDoctorId, oldTime, doctorId, newTime);
+                appointmentJournal.record(AppointmentJournal.Type.RESCHEDULED, appointmentId, doctorId, patientId,
+                        newTime, appointment.getStatus());
+            }
 
             response.put("message", "Appointment updated successfully");
             return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            response.put("error", "Appointment was modified concurrently");
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (isSlotConflict(e)) {
+                slotInventory.invalidateDay(doctorId, newTime.toLocalDate());
+                response.put("error", "Time slot not available");
+                return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+            }
+            response.put("error", "Error updating appointment: " + e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.put("error", "Error updating appointment: " + e.getMessage());
             return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @Transactional
-    public ResponseEntity<Map<String, String>> cancelAppointment(Long appointmentId, String token) {
+    public ResponseEntity<Map<String, String>> cancelAppointment(Long appointmentId, Long patientId) {
         Map<String, String> response = new HashMap<>();
         try {
-            String email = tokenService.extractEmail(token);
-            Patient patient = patientRepository.findByEmail(email);
-            if (patient == null) {
-                response.put("error", "Patient not found");
-                return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
-            }
-
             Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
             if (appointmentOpt.isEmpty()) {
                 response.put("error", "Appointment not found");
@@ -102,12 +196,16 @@ public class AppointmentService {
             }
 
             Appointment appointment = appointmentOpt.get();
-            if (!appointment.getPatient().getId().equals(patient.getId())) {
+            if (!appointment.getPatient().getId().equals(patientId)) {
                 response.put("error", "Unauthorized to cancel this appointment");
                 return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
             }
 
             appointmentRepository.delete(appointment);
+            slotInventory.release(appointment.getDoctor().getId(), appointment.getAppointmentTime());
+            appointmentStream.cancelled(appointmentId, appointment.getDoctor().getId(), appointment.getAppointmentTime());
+            appointmentJournal.record(AppointmentJournal.Type.CANCELLED, appointmentId, appointment.getDoctor().getId(),
+                    patientId, appointment.getAppointmentTime(), appointment.getStatus());
             response.put("message", "Appointment cancelled successfully");
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (Exception e) {
@@ -116,34 +214,38 @@ public class AppointmentService {
         }
     }
 
-    @Transactional
-    public ResponseEntity<Map<String, Object>> getAppointments(Long doctorId, LocalDate date, String patientName) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getAppointments(Long doctorId, LocalDate date, String patientName,
+                                                               String cursor, Integer limit) {
         Map<String, Object> response = new HashMap<>();
         try {
             LocalDateTime startOfDay = date.atStartOfDay();
             LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
 
-            List<Appointment> appointments;
-            if (patientName != null && !patientName.isEmpty()) {
-                appointments = appointmentRepository.findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                        doctorId, patientName, startOfDay, endOfDay);
-            } else {
-                appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
-            }
-
-            List<AppointmentDTO> dtos = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            response.put("appointments", dtos);
+            boolean hasName = patientName != null && !patientName.isEmpty();
+            response = appointmentPager.page(cursor, limit, (afterTime, afterId, page) -> hasName
+                    ? appointmentRepository.findPageByDoctorIdAndPatientNameAndAppointmentTimeBetween(
+                            doctorId, patientName, startOfDay, endOfDay, afterTime, afterId, page)
+                    : appointmentRepository.findPageByDoctorIdAndAppointmentTimeBetween(
+                            doctorId, startOfDay, endOfDay, afterTime, afterId, page));
             return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             response.put("error", "Error fetching appointments: " + e.getMessage());
             return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    @Transactional
     public void changeStatus(Long appointmentId, int status) {
-        appointmentRepository.updateStatus(status, appointmentId);
+        appointmentStatusQueue.submit(appointmentId, status);
+        appointmentStream.statusChanged(appointmentId, status);
+        appointmentJournal.record(AppointmentJournal.Type.STATUS, appointmentId, null, null, null, status);
+    }
+
+    private static boolean isSlotConflict(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.contains(SLOT_CONSTRAINT);
     }
 }
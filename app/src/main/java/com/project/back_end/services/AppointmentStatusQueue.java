@@ -0,0 +1,246 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.repo.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind queue for appointment status changes. A change is appended to a local journal and forced to disk
+ * before it is acknowledged; concurrent callers share one force. Pending changes are kept per appointment, the
+ * latest one winning, and a scheduled flush applies them with one {@code UPDATE ... WHERE id IN (...)} per status
+ * value in a single transaction, then compacts the journal down to what is still pending. A change submitted while
+ * a flush runs stays pending unless the flush wrote that same status. The journal is replayed on startup, so an
+ * acknowledged change survives a restart.
+ */
+@Component
+public class AppointmentStatusQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStatusQueue.class);
+    private static final int RECORD_BYTES = Long.BYTES + Integer.BYTES;
+
+    @Value("${appointments.status.journal:data/appointment-status.journal}")
+    private Path journalPath;
+
+    @Value("${appointments.status.batch-size:500}")
+    private int batchSize;
+
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong durable = new AtomicLong();
+    private FileChannel journal;
+    private long position;
+    private long written;
+
+    public AppointmentStatusQueue(AppointmentRepository appointmentRepository, PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path directory = journalPath.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        ByteBuffer records;
+        try (FileChannel replay = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            records = ByteBuffer.allocate((int) replay.size());
+            while (records.hasRemaining() && replay.read(records, records.position()) >= 0) {}
+        }
+        records.flip();
+        while (records.remaining() >= RECORD_BYTES) {
+            pending.put(records.getLong(), records.getInt());
+        }
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} pending appointment status changes from {}", pending.size(), journalPath);
+        }
+        compact();
+    }
+
+    /** Returns once the change is on disk; the database sees it with the next flush. */
+    public void submit(Long appointmentId, int status) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).putLong(appointmentId).putInt(status).flip();
+        long end;
+        journalLock.lock();
+        try {
+            append(record);
+            pending.put(appointmentId, status);
+            end = written;
+        } finally {
+            journalLock.unlock();
+        }
+        force(end);
+    }
+
+    /** Replaces database statuses with pending ones so reads see acknowledged changes before they are flushed. */
+    public <T extends Iterable<AppointmentDTO>> T overlay(T appointments) {
+        if (!pending.isEmpty()) {
+            appointments.forEach(this::overlay);
+        }
+        return appointments;
+    }
+
+    public AppointmentDTO overlay(AppointmentDTO appointment) {
+        Integer status = appointment != null ? pending.get(appointment.getId()) : null;
+        if (status != null) {
+            appointment.setStatus(status);
+        }
+        return appointment;
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.status.flush-interval:200ms}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> batch = new HashMap<>(pending);
+        Map<Integer, List<Long>> byStatus = new HashMap<>();
+        batch.forEach((id, status) -> byStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(id));
+        try {
+            transactionTemplate.executeWithoutResult(tx -> byStatus.forEach((status, ids) -> {
+                for (int from = 0; from < ids.size(); from += batchSize) {
+                    appointmentRepository.updateStatuses(status, ids.subList(from, Math.min(from + batchSize, ids.size())));
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} appointment status changes failed; retrying on the next run", batch.size(), e);
+            return;
+        }
+        batch.forEach((id, status) -> pending.remove(id, status));
+        compact();
+    }
+
+    /**
+     * Rewrites the journal with just the pending changes. They go to a side file that is forced and then renamed over
+     * the journal, so a crash at any point leaves either the old or the new journal whole. Holds the force lock too,
+     * so no force runs against the channel being replaced.
+     */
+    private void compact() {
+        forceLock.lock();
+        journalLock.lock();
+        try {
+            ByteBuffer records = ByteBuffer.allocate(pending.size() * RECORD_BYTES);
+            pending.forEach((id, status) -> records.putLong(id).putInt(status));
+            records.flip();
+            Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".compact");
+            FileChannel next = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                while (records.hasRemaining()) {
+                    next.write(records);
+                }
+                next.force(false);
+                Files.move(compacted, journalPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                next.close();
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+            forceDirectory();
+            if (journal != null) {
+                journal.close();
+            }
+            journal = next;
+            position = records.limit();
+            written += records.limit();
+            durable.accumulateAndGet(written, Math::max);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            journalLock.unlock();
+            forceLock.unlock();
+        }
+    }
+
+    /** Makes the rename durable; not every platform can open a directory, and those keep the rename in any case. */
+    private void forceDirectory() {
+        Path directory = journalPath.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Could not force directory {}", directory, e);
+        }
+    }
+
+    private void append(ByteBuffer records) {
+        try {
+            while (records.hasRemaining()) {
+                int count = journal.write(records, position);
+                position += count;
+                written += count;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void force(long end) {
+        if (durable.get() >= end) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            if (durable.get() >= end) {
+                return;
+            }
+            long target;
+            journalLock.lock();
+            try {
+                target = written;
+            } finally {
+                journalLock.unlock();
+            }
+            journal.force(false);
+            durable.accumulateAndGet(target, Math::max);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+}
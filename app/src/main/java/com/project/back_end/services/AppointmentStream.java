@@ -0,0 +1,263 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.repo.AppointmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Server-sent appointment events per doctor and day. A subscriber first receives a {@code snapshot} of the
+ * day, then {@code booked}, {@code rescheduled}, {@code cancelled} and {@code status} events as
+ * {@link AppointmentService} commits changes. Events for days nobody watches are dropped before any query
+ * runs, so an open dashboard costs nothing between changes.
+ * <p>
+ * Each subscriber has its own queue, filled in commit order when a change commits. Queries run on a small lookup
+ * pool and sends on a separate pool, so a slow query or a slow client only holds up its own queue. A queue is
+ * drained strictly in order, waiting for each lookup in turn, so a subscriber sees its snapshot first and events
+ * in commit order. Events are idempotent upserts and removals by appointment id, so one that overlaps the
+ * snapshot is harmless. A failed lookup or send ends that subscriber's stream; the client reconnects and gets
+ * a fresh snapshot.
+ */
+@Component
+public class AppointmentStream {
+
+    private static final int LOOKUP_THREADS = 2;
+
+    @Value("${appointments.stream.timeout:30m}")
+    private Duration timeout;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentStatusQueue appointmentStatusQueue;
+    private final Map<DayKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService lookups = Executors.newFixedThreadPool(LOOKUP_THREADS, threads("appointment-stream-lookup"));
+    private final ExecutorService senders = Executors.newCachedThreadPool(threads("appointment-stream-send"));
+
+    public AppointmentStream(AppointmentRepository appointmentRepository, AppointmentStatusQueue appointmentStatusQueue) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentStatusQueue = appointmentStatusQueue;
+    }
+
+    public SseEmitter subscribe(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(key, emitter);
+        CompletableFuture<List<Event>> snapshot = new CompletableFuture<>();
+        subscriber.enqueue(snapshot);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.computeIfAbsent(key, k -> new CopyOnWriteArraySet<>()).add(subscriber);
+
+        snapshot.completeAsync(() -> List.of(new Event("snapshot", appointmentStatusQueue.overlay(appointmentRepository
+                .findDtosByDoctorIdAndAppointmentTimeBetween(doctorId, date.atStartOfDay(), date.atTime(LocalTime.MAX))))), lookups);
+        return emitter;
+    }
+
+    public void booked(Long doctorId, Collection<LocalDateTime> times) {
+        afterCommit(() -> {
+            List<LocalDateTime> watched = times.stream().filter(time -> isWatched(doctorId, time)).toList();
+            if (watched.isEmpty()) {
+                return;
+            }
+            CompletableFuture<List<AppointmentDTO>> appointments = lookup(() -> appointmentStatusQueue.overlay(
+                    appointmentRepository.findDtosByDoctorIdAndAppointmentTimeIn(doctorId, watched)));
+            watched.stream().map(time -> new DayKey(doctorId, time.toLocalDate())).distinct().forEach(day ->
+                    enqueue(day, appointments.thenApply(rows -> rows.stream()
+                            .filter(appointment -> day.date().equals(appointment.getAppointmentTime().toLocalDate()))
+                            .map(appointment -> new Event("booked", appointment))
+                            .toList())));
+        });
+    }
+
+    public void rescheduled(Long appointmentId, Long oldDoctorId, LocalDateTime oldTime, Long newDoctorId, LocalDateTime newTime) {
+        afterCommit(() -> {
+            DayKey oldDay = new DayKey(oldDoctorId, oldTime.toLocalDate());
+            DayKey newDay = new DayKey(newDoctorId, newTime.toLocalDate());
+            if (!oldDay.equals(newDay) && subscribers.containsKey(oldDay)) {
+                Map<String, Object> moved = new HashMap<>();
+                moved.put("id", appointmentId);
+                moved.put("appointment", null);
+                enqueue(oldDay, CompletableFuture.completedFuture(List.of(new Event("rescheduled", moved))));
+            }
+            if (subscribers.containsKey(newDay)) {
+                enqueue(newDay, lookup(() -> appointmentStatusQueue.overlay(appointmentRepository.findDtoById(appointmentId)))
+                        .thenApply(appointment -> {
+                            if (appointment == null) {
+                                return List.of();
+                            }
+                            Map<String, Object> updated = new HashMap<>();
+                            updated.put("id", appointmentId);
+                            updated.put("appointment", appointment);
+                            return List.of(new Event("rescheduled", updated));
+                        }));
+            }
+        });
+    }
+
+    public void cancelled(Long appointmentId, Long doctorId, LocalDateTime time) {
+        afterCommit(() -> {
+            if (isWatched(doctorId, time)) {
+                enqueue(new DayKey(doctorId, time.toLocalDate()),
+                        CompletableFuture.completedFuture(List.of(new Event("cancelled", Map.of("id", appointmentId)))));
+            }
+        });
+    }
+
+    /**
+     * The appointment's doctor and day are not known up front, so while anyone is watching it is looked up once and
+     * every queue gets a place in line that turns into the event for the matching day and into nothing elsewhere.
+     */
+    public void statusChanged(Long appointmentId, int status) {
+        afterCommit(() -> {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            CompletableFuture<AppointmentDTO> appointment = lookup(() -> appointmentRepository.findDtoById(appointmentId));
+            subscribers.keySet().forEach(day -> enqueue(day, appointment.thenApply(found ->
+                    found != null && day.equals(new DayKey(found.getDoctorId(), found.getAppointmentTime().toLocalDate()))
+                            ? List.of(new Event("status", Map.of("id", appointmentId, "status", status)))
+                            : List.of())));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookups.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(day -> day.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private boolean isWatched(Long doctorId, LocalDateTime time) {
+        return subscribers.containsKey(new DayKey(doctorId, time.toLocalDate()));
+    }
+
+    private <T> CompletableFuture<T> lookup(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, lookups);
+    }
+
+    private void enqueue(DayKey day, CompletableFuture<List<Event>> events) {
+        Set<Subscriber> watching = subscribers.get(day);
+        if (watching != null) {
+            watching.forEach(subscriber -> subscriber.enqueue(events));
+        }
+    }
+
+    /**
+     * Checks for subscribers only once the change is committed: anyone who subscribed earlier gets the event,
+     * anyone later reads the change in their snapshot.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ThreadFactory threads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record DayKey(long doctorId, LocalDate date) {}
+
+    private record Event(String name, Object data) {}
+
+    /** One client's ordered queue; at most one sender drains it at a time. */
+    private final class Subscriber {
+
+        private final DayKey day;
+        private final SseEmitter emitter;
+        private final Queue<CompletableFuture<List<Event>>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(DayKey day, SseEmitter emitter) {
+            this.day = day;
+            this.emitter = emitter;
+        }
+
+        void enqueue(CompletableFuture<List<Event>> events) {
+            if (closed) {
+                return;
+            }
+            queue.add(events);
+            events.whenComplete((result, error) -> schedule());
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+            subscribers.computeIfPresent(day, (k, watching) -> {
+                watching.remove(this);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+
+        private void schedule() {
+            CompletableFuture<List<Event>> head = queue.peek();
+            if (!closed && head != null && head.isDone() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        /** Sends every finished lookup at the head of the queue, then checks again for one that finished meanwhile. */
+        private void drain() {
+            try {
+                CompletableFuture<List<Event>> head;
+                while (!closed && (head = queue.peek()) != null && head.isDone()) {
+                    queue.poll();
+                    for (Event event : head.join()) {
+                        emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (CompletionException | IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } finally {
+                draining.set(false);
+            }
+            schedule();
+        }
+    }
+}
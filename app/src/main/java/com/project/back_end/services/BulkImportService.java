@@ -0,0 +1,309 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams CSV (header row, one record per line) or NDJSON records into the doctors or patients table.
+ * Rows are validated with the entity constraints and checked for duplicates against in-memory sets of
+ * existing emails and phones, then written with JDBC batches, one transaction per batch. If a batch
+ * fails (e.g. a concurrent signup took an email), its rows are retried one by one so only the offending
+ * rows are rejected.
+ */
+@Service
+public class BulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorCatalog doctorCatalog;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             PatientRepository patientRepository, DoctorRepository doctorRepository,
+                             DoctorSearchIndex doctorSearchIndex, DoctorCatalog doctorCatalog, Validator validator,
+                             ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.doctorSearchIndex = doctorSearchIndex;
+        this.doctorCatalog = doctorCatalog;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    public ResponseEntity<Map<String, Object>> importPatients(InputStream body, boolean csv) {
+        Set<String> emails = new HashSet<>(patientRepository.findAllEmails());
+        Set<String> phones = new HashSet<>(patientRepository.findAllPhones());
+        return importRecords(body, csv, Patient.class,
+                columns -> new Patient(columns.get("name"), columns.get("email"), columns.get("password"),
+                        columns.get("phone"), columns.get("address")),
+                patient -> {
+                    if (emails.contains(patient.getEmail())) return "Patient with this email already exists";
+                    if (phones.contains(patient.getPhone())) return "Patient with this phone already exists";
+                    emails.add(patient.getEmail());
+                    phones.add(patient.getPhone());
+                    return null;
+                },
+                this::insertPatients);
+    }
+
+    public ResponseEntity<Map<String, Object>> importDoctors(InputStream body, boolean csv) {
+        Set<String> emails = new HashSet<>(doctorRepository.findAllEmails());
+        return importRecords(body, csv, Doctor.class,
+                columns -> new Doctor(columns.get("name"), columns.get("specialty"), columns.get("email"),
+                        columns.get("password"), columns.get("phone"), slots(columns.get("availabletimes"))),
+                doctor -> {
+                    if (emails.contains(doctor.getEmail())) return "Doctor with this email already exists";
+                    emails.add(doctor.getEmail());
+                    return null;
+                },
+                this::insertDoctors);
+    }
+
+    private <T> ResponseEntity<Map<String, Object>> importRecords(InputStream body, boolean csv, Class<T> type,
+                                                                  Function<Map<String, String>, T> fromColumns,
+                                                                  Function<T, String> admit, BatchWriter<T> writer) {
+        Report report = new Report();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Integer> lines = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                if (csv && header == null) {
+                    header = header(line);
+                    continue;
+                }
+
+                T record;
+                try {
+                    record = csv ? fromColumns.apply(columns(header, splitCsv(line))) : objectMapper.readValue(line, type);
+                } catch (Exception e) {
+                    report.reject(lineNumber, "Malformed record: " + e.getMessage());
+                    continue;
+                }
+                String error = violations(record);
+                if (error == null) error = admit.apply(record);
+                if (error != null) {
+                    report.reject(lineNumber, error);
+                    continue;
+                }
+
+                batch.add(record);
+                lines.add(lineNumber);
+                if (batch.size() >= batchSize) {
+                    flush(batch, lines, writer, report);
+                }
+            }
+            flush(batch, lines, writer, report);
+            return new ResponseEntity<>(report.toMap(), HttpStatus.OK);
+        } catch (Exception e) {
+            Map<String, Object> response = report.toMap();
+            response.put("error", "Import aborted: " + e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private <T> void flush(List<T> batch, List<Integer> lines, BatchWriter<T> writer, Report report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.write(List.copyOf(batch)));
+            report.imported += batch.size();
+        } catch (DataAccessException batchError) {
+            for (int i = 0; i < batch.size(); i++) {
+                T record = batch.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writer.write(List.of(record)));
+                    report.imported++;
+                } catch (DataAccessException rowError) {
+                    report.reject(lines.get(i), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+        batch.clear();
+        lines.clear();
+    }
+
+    private void insertPatients(List<Patient> patients) {
+        jdbcTemplate.batchUpdate("INSERT INTO patients (name, email, password, phone, address) VALUES (?, ?, ?, ?, ?)",
+                patients, patients.size(), (ps, patient) -> {
+                    ps.setString(1, patient.getName());
+                    ps.setString(2, patient.getEmail());
+                    ps.setString(3, patient.getPassword());
+                    ps.setString(4, patient.getPhone());
+                    ps.setString(5, patient.getAddress());
+                });
+    }
+
+    private void insertDoctors(List<Doctor> doctors) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('doctors', 'id')) FROM generate_series(1, ?)", Long.class, doctors.size());
+        for (int i = 0; i < doctors.size(); i++) {
+            doctors.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO doctors (id, name, specialty, email, password, phone, schedule) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                doctors, doctors.size(), (ps, doctor) -> {
+                    ps.setLong(1, doctor.getId());
+                    ps.setString(2, doctor.getName());
+                    ps.setString(3, doctor.getSpecialty());
+                    ps.setString(4, doctor.getEmail());
+                    ps.setString(5, doctor.getPassword());
+                    ps.setString(6, doctor.getPhone());
+                    ps.setBytes(7, doctor.getSchedule().toBytes());
+                });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doctors.forEach(doctorSearchIndex::put);
+                doctorCatalog.invalidate();
+            }
+        });
+    }
+
+    private <T> String violations(T record) {
+        Set<ConstraintViolation<T>> violations = validator.validate(record);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /** Column names of a CSV header row, trimmed and lower-cased so they match regardless of spelling. */
+    static String[] header(String line) {
+        return Arrays.stream(splitCsv(line)).map(h -> h.trim().toLowerCase(Locale.ROOT)).toArray(String[]::new);
+    }
+
+    /** Maps one row's values onto the header's column names; empty values become null. */
+    static Map<String, String> columns(String[] header, String[] values) {
+        if (header == null) {
+            throw new IllegalArgumentException("missing header row");
+        }
+        if (values.length != header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " columns but found " + values.length);
+        }
+        Map<String, String> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i], values[i].isEmpty() ? null : values[i]);
+        }
+        return columns;
+    }
+
+    /** Splits one RFC 4180 line; quoted fields may contain commas and doubled quotes but not line breaks. */
+    static String[] splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static List<String> slots(String value) {
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(value.split("[;|]"))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter<T> {
+        void write(List<T> records);
+    }
+
+    private static final class Report {
+        private int imported;
+        private int rejected;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+
+        private void reject(int line, String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("line", line);
+                entry.put("error", error);
+                errors.add(entry);
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("imported", imported);
+            result.put("rejected", rejected);
+            result.put("errors", errors);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.config.ReplicaRouting;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copy-on-write snapshot of the serialized {@code GET /doctor} body, plain and gzip-compressed.
+ * Reads return the current snapshot without touching the database; admin changes mark it stale and the
+ * next read rebuilds it once.
+ */
+@Component
+public class DoctorCatalog {
+
+    private final DoctorRepository doctorRepository;
+    private final ObjectMapper objectMapper;
+
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    private final AtomicLong version = new AtomicLong();
+    private final Lock rebuildLock = new ReentrantLock();
+    private volatile long lastModified = System.currentTimeMillis();
+    private volatile Snapshot snapshot;
+
+    public DoctorCatalog(DoctorRepository doctorRepository, ObjectMapper objectMapper) {
+        this.doctorRepository = doctorRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null && current.generation == version.get() ? current : rebuild();
+    }
+
+    /** Marks the snapshot stale, again after the surrounding transaction completes so a rebuild racing the commit is discarded. */
+    public void invalidate() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lastModified = System.currentTimeMillis();
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private Snapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            while (true) {
+                long seen = version.get();
+                long modified = lastModified;
+                Snapshot current = snapshot;
+                if (current != null && current.generation == seen) {
+                    return current;
+                }
+                List<Doctor> doctors = ReplicaRouting.onPrimary(() -> doctorRepository.findAll(Sort.by("id")));
+                byte[] json;
+                byte[] gzip;
+                try {
+                    json = objectMapper.writeValueAsBytes(Map.of("doctors", doctors));
+                    gzip = gzip(json);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (version.get() == seen) {
+                    snapshot = new Snapshot(seen, ResourceVersion.of("c", epoch, seen, modified),
+                            ResourceVersion.of("cz", epoch, seen, modified), json, gzip);
+                    return snapshot;
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The JSON body {@code {"doctors":[...]}}, doctors ordered by id, with its validators. The gzip body has its
+     * own strong etag since it is a different byte sequence. Bodies are handed out as read-only resources so no
+     * caller can alter what every other request is served.
+     */
+    public static final class Snapshot {
+
+        private final long generation;
+        private final ResourceVersion version;
+        private final ResourceVersion gzipVersion;
+        private final Resource json;
+        private final Resource gzip;
+
+        private Snapshot(long generation, ResourceVersion version, ResourceVersion gzipVersion, byte[] json, byte[] gzip) {
+            this.generation = generation;
+            this.version = version;
+            this.gzipVersion = gzipVersion;
+            this.json = new Body(json, "doctor catalog");
+            this.gzip = new Body(gzip, "gzipped doctor catalog");
+        }
+
+        public ResourceVersion version(boolean gzipped) {
+            return gzipped ? gzipVersion : version;
+        }
+
+        public Resource body(boolean gzipped) {
+            return gzipped ? gzip : json;
+        }
+    }
+
+    private static final class Body extends AbstractResource {
+
+        private final byte[] bytes;
+        private final String description;
+
+        private Body(byte[] bytes, String description) {
+            this.bytes = bytes;
+            this.description = description;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public long contentLength() {
+            return bytes.length;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.ReplicaRouting;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process index over the doctor catalog answering the name / specialty / AM-PM filters.
+ * Name and specialty are indexed by every 1-, 2- and 3-gram, so a substring query of up to three
+ * characters is a single posting lookup and longer queries intersect their trigrams and verify.
+ */
+@Component
+public class DoctorSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final DoctorRepository doctorRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, BitSet> namePostings = new HashMap<>();
+    private final Map<String, BitSet> specialtyPostings = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet am = new BitSet();
+    private final BitSet pm = new BitSet();
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+    private volatile boolean loaded;
+
+    public DoctorSearchIndex(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    public List<Doctor> search(String name, String specialty, String time) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BitSet hits = (BitSet) live.clone();
+            String nameQuery = normalize(name);
+            String specialtyQuery = normalize(specialty);
+            if (nameQuery != null) intersect(hits, namePostings, nameQuery);
+            if (specialtyQuery != null) intersect(hits, specialtyPostings, specialtyQuery);
+            if (time != null) {
+                if ("AM".equalsIgnoreCase(time)) hits.and(am);
+                else if ("PM".equalsIgnoreCase(time)) hits.and(pm);
+                else hits.clear();
+            }
+
+            List<Doctor> result = new ArrayList<>(hits.cardinality());
+            for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+                Entry entry = entries.get(i);
+                if (nameQuery != null && nameQuery.length() > GRAM && !entry.name.contains(nameQuery)) continue;
+                if (specialtyQuery != null && specialtyQuery.length() > GRAM && !entry.specialty.contains(specialtyQuery)) continue;
+                result.add(entry.doctor);
+            }
+            result.sort(Comparator.comparing(Doctor::getId));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Doctor doctor) {
+        if (doctor.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                pendingChanges.incrementAndGet();
+                return;
+            }
+            Integer ordinal = ordinals.get(doctor.getId());
+            if (ordinal != null) {
+                unindex(ordinal);
+            } else {
+                ordinal = entries.size();
+                entries.add(null);
+                ordinals.put(doctor.getId(), ordinal);
+            }
+            index(ordinal, doctor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long doctorId) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                pendingChanges.incrementAndGet();
+                return;
+            }
+            Integer ordinal = ordinals.remove(doctorId);
+            if (ordinal != null) {
+                unindex(ordinal);
+                entries.set(ordinal, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        while (!loaded) {
+            int seen = pendingChanges.get();
+            List<Doctor> doctors = ReplicaRouting.onPrimary(doctorRepository::findAll);
+            lock.writeLock().lock();
+            try {
+                if (!loaded && pendingChanges.get() == seen) {
+                    load(doctors);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void load(List<Doctor> doctors) {
+        for (Doctor doctor : doctors) {
+            int ordinal = entries.size();
+            entries.add(null);
+            ordinals.put(doctor.getId(), ordinal);
+            index(ordinal, doctor);
+        }
+        loaded = true;
+    }
+
+    private void index(int ordinal, Doctor source) {
+        Entry entry = new Entry(snapshot(source));
+        entries.set(ordinal, entry);
+        live.set(ordinal);
+        for (String gram : grams(entry.name)) namePostings.computeIfAbsent(gram, g -> new BitSet()).set(ordinal);
+        for (String gram : grams(entry.specialty)) specialtyPostings.computeIfAbsent(gram, g -> new BitSet()).set(ordinal);
+        if (entry.hasAm) am.set(ordinal);
+        if (entry.hasPm) pm.set(ordinal);
+    }
+
+    private void unindex(int ordinal) {
+        Entry entry = entries.get(ordinal);
+        if (entry == null) {
+            return;
+        }
+        clear(namePostings, grams(entry.name), ordinal);
+        clear(specialtyPostings, grams(entry.specialty), ordinal);
+        live.clear(ordinal);
+        am.clear(ordinal);
+        pm.clear(ordinal);
+    }
+
+    private static void intersect(BitSet hits, Map<String, BitSet> postings, String query) {
+        if (query.length() <= GRAM) {
+            and(hits, postings.get(query));
+            return;
+        }
+        for (int i = 0; i + GRAM <= query.length() && !hits.isEmpty(); i++) {
+            and(hits, postings.get(query.substring(i, i + GRAM)));
+        }
+    }
+
+    private static void and(BitSet hits, BitSet posting) {
+        if (posting == null) hits.clear();
+        else hits.and(posting);
+    }
+
+    private static void clear(Map<String, BitSet> postings, List<String> grams, int ordinal) {
+        for (String gram : grams) {
+            BitSet posting = postings.get(gram);
+            if (posting == null) continue;
+            posting.clear(ordinal);
+            if (posting.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    private static List<String> grams(String value) {
+        List<String> grams = new ArrayList<>();
+        for (int n = 1; n <= GRAM; n++) {
+            for (int i = 0; i + n <= value.length(); i++) {
+                grams.add(value.substring(i, i + n));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Doctor snapshot(Doctor source) {
+        Doctor copy = new Doctor(source.getName(), source.getSpecialty(), source.getEmail(), null, source.getPhone(), null);
+        copy.setId(source.getId());
+        copy.setSchedule(source.getSchedule());
+        return copy;
+    }
+
+    private static final class Entry {
+        private final Doctor doctor;
+        private final String name;
+        private final String specialty;
+        private final boolean hasAm;
+        private final boolean hasPm;
+
+        private Entry(Doctor doctor) {
+            this.doctor = doctor;
+            this.name = doctor.getName() != null ? doctor.getName().toLowerCase(Locale.ROOT) : "";
+            this.specialty = doctor.getSpecialty() != null ? doctor.getSpecialty().toLowerCase(Locale.ROOT) : "";
+            this.hasAm = doctor.getSchedule().hasMorning();
+            this.hasPm = doctor.getSchedule().hasAfternoon();
+        }
+    }
+}
@@ -1,55 +1,100 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AvailableSlot;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.WeeklySchedule;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class DoctorService {
 
+    @Value("${availability.max-range-days:42}")
+    private int maxRangeDays;
+
+    @Value("${availability.search.default-limit:10}")
+    private int defaultSearchLimit;
+
+    @Value("${availability.search.max-limit:50}")
+    private int maxSearchLimit;
+
+    @Value("${availability.search.default-days:14}")
+    private int defaultSearchDays;
+
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
-
-    public DoctorService(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository, TokenService tokenService) {
+    private final SlotInventory slotInventory;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorCatalog doctorCatalog;
+    private final AppointmentJournal appointmentJournal;
+    private final AppointmentStream appointmentStream;
+
+    public DoctorService(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository, TokenService tokenService,
+                         SlotInventory slotInventory, DoctorSearchIndex doctorSearchIndex, DoctorCatalog doctorCatalog,
+                         AppointmentJournal appointmentJournal, AppointmentStream appointmentStream) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.slotInventory = slotInventory;
+        this.doctorSearchIndex = doctorSearchIndex;
+        this.doctorCatalog = doctorCatalog;
+        this.appointmentJournal = appointmentJournal;
+        this.appointmentStream = appointmentStream;
     }
 
-    @Transactional
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
-        Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
-        if (doctorOpt.isEmpty()) {
-            return Collections.emptyList();
-        }
-        Doctor doctor = doctorOpt.get();
-        List<String> allSlots = doctor.getAvailableTimes();
-        if (allSlots == null || allSlots.isEmpty()) {
-            return Collections.emptyList();
-        }
+        return slotInventory.getAvailableSlots(doctorId, date);
+    }
+
+    public ResourceVersion getDoctorAvailabilityVersion(Long doctorId, LocalDate date) {
+        return slotInventory.version(doctorId, date);
+    }
+
+    public Map<LocalDate, List<String>> getDoctorAvailability(Long doctorId, LocalDate from, LocalDate to) {
+        return slotInventory.getAvailableSlots(doctorId, from, to);
+    }
+
+    public ResourceVersion getDoctorAvailabilityVersion(Long doctorId, LocalDate from, LocalDate to) {
+        return slotInventory.version(doctorId, from, to);
+    }
 
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        var appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
+    /** Earliest free slots of doctors matching the specialty and AM/PM filter, from now over the next {@code days} days. */
+    public List<AvailableSlot> findEarliestSlots(String specialty, String time, Integer days, Integer limit) {
+        String period = time != null && !time.isEmpty() && !time.equals("null") ? time : null;
+        List<Doctor> doctors = doctorSearchIndex.search(null, specialty, period).stream()
+                .filter(doctor -> !doctor.getSchedule().isEmpty())
+                .toList();
+        int fromMinute = "PM".equalsIgnoreCase(period) ? WeeklySchedule.NOON : 0;
+        int toMinute = "AM".equalsIgnoreCase(period) ? WeeklySchedule.NOON : WeeklySchedule.MINUTES_PER_DAY;
+        int horizon = days == null || days <= 0 ? defaultSearchDays : Math.min(days, maxRangeDays);
+        int size = limit == null || limit <= 0 ? defaultSearchLimit : Math.min(limit, maxSearchLimit);
+        LocalDateTime now = LocalDateTime.now();
+        return slotInventory.findEarliest(doctors, now, now.toLocalDate().plusDays(horizon - 1), fromMinute, toMinute, size);
+    }
+
+    public int getMaxAvailabilityRangeDays() {
+        return maxRangeDays;
+    }
 
-        Set<String> bookedSlots = appointments.stream()
-                .map(a -> a.getAppointmentTime().toLocalTime().toString())
-                .collect(Collectors.toSet());
+    public boolean isWithinBookingHorizon(LocalDate date) {
+        return slotInventory.isWithinHorizon(date);
+    }
 
-        return allSlots.stream()
-                .filter(slot -> !bookedSlots.contains(slot))
-                .collect(Collectors.toList());
+    public int getBookingHorizonDays() {
+        return slotInventory.getBookingHorizonDays();
     }
 
     public int saveDoctor(Doctor doctor) {
@@ -58,7 +103,8 @@ public class DoctorService {
             if (existing != null) {
                 return -1;
             }
-            doctorRepository.save(doctor);
+            doctorSearchIndex.put(doctorRepository.save(doctor));
+            doctorCatalog.invalidate();
             return 1;
         } catch (Exception e) {
             return 0;
@@ -70,20 +116,18 @@ public class DoctorService {
             if (!doctorRepository.existsById(doctor.getId())) {
                 return -1;
             }
-            doctorRepository.save(doctor);
+            doctorSearchIndex.put(doctorRepository.save(doctor));
+            doctorCatalog.invalidate();
+            slotInventory.evictDoctor(doctor.getId());
+            tokenService.invalidate("doctor", doctor.getId());
             return 1;
         } catch (Exception e) {
             return 0;
         }
     }
 
-    @Transactional
-    public List<Doctor> getDoctors() {
-        List<Doctor> doctors = doctorRepository.findAll();
-        doctors.forEach(d -> {
-            if (d.getAvailableTimes() != null) d.getAvailableTimes().size();
-        });
-        return doctors;
+    public DoctorCatalog.Snapshot getDoctorCatalog() {
+        return doctorCatalog.current();
     }
 
     @Transactional
@@ -92,8 +136,23 @@ public class DoctorService {
             if (!doctorRepository.existsById(id)) {
                 return -1;
             }
+            List<AppointmentDTO> appointments = appointmentRepository.findDtosByDoctorId(id);
             appointmentRepository.deleteAllByDoctorId(id);
             doctorRepository.deleteById(id);
+            for (AppointmentDTO appointment : appointments) {
+                appointmentJournal.record(AppointmentJournal.Type.CANCELLED, appointment.getId(), id, appointment.getPatientId(),
+                        appointment.getAppointmentTime(), appointment.getStatus());
+                appointmentStream.cancelled(appointment.getId(), id, appointment.getAppointmentTime());
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doctorSearchIndex.remove(id);
+                    doctorCatalog.invalidate();
+                    slotInventory.evictDoctor(id);
+                    tokenService.invalidate("doctor", id);
+                }
+            });
             return 1;
         } catch (Exception e) {
             return 0;
@@ -121,65 +180,4 @@ public class DoctorService {
             return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-
-    @Transactional
-    public List<Doctor> findDoctorByName(String name) {
-        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCase(name);
-        doctors.forEach(d -> {
-            if (d.getAvailableTimes() != null) d.getAvailableTimes().size();
-        });
-        return doctors;
-    }
-
-    @Transactional
-    public List<Doctor> filterDoctorsByNameSpecialityAndTime(String name, String specialty, String time) {
-        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase(name, specialty);
-        return filterDoctorByTime(doctors, time);
-    }
-
-    public List<Doctor> filterDoctorByTime(List<Doctor> doctors, String time) {
-        return doctors.stream()
-                .filter(d -> hasTimeSlotInPeriod(d.getAvailableTimes(), time))
-                .collect(Collectors.toList());
-    }
-
-    private boolean hasTimeSlotInPeriod(List<String> times, String period) {
-        if (times == null) return false;
-        for (String slot : times) {
-            try {
-                LocalTime t = LocalTime.parse(slot);
-                if ("AM".equalsIgnoreCase(period) && t.getHour() < 12) return true;
-                if ("PM".equalsIgnoreCase(period) && t.getHour() >= 12) return true;
-            } catch (Exception ignored) {}
-        }
-        return false;
-    }
-
-    @Transactional
-    public List<Doctor> filterDoctorByNameAndTime(String name, String time) {
-        List<Doctor> doctors = findDoctorByName(name);
-        return filterDoctorByTime(doctors, time);
-    }
-
-    @Transactional
-    public List<Doctor> filterDoctorByNameAndSpecialty(String name, String specialty) {
-        return doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase(name, specialty);
-    }
-
-    @Transactional
-    public List<Doctor> filterDoctorByTimeAndSpecialty(String time, String specialty) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyContainingIgnoreCase(specialty);
-        return filterDoctorByTime(doctors, time);
-    }
-
-    @Transactional
-    public List<Doctor> filterDoctorBySpecialty(String specialty) {
-        return doctorRepository.findBySpecialtyContainingIgnoreCase(specialty);
-    }
-
-    @Transactional
-    public List<Doctor> filterDoctorsByTime(String time) {
-        List<Doctor> doctors = getDoctors();
-        return filterDoctorByTime(doctors, time);
-    }
 }
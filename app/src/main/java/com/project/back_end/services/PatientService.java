@@ -1,7 +1,5 @@
 package com.project.back_end.services;
 
-import com.project.back_end.DTO.AppointmentDTO;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -10,21 +8,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
 
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
-    private final TokenService tokenService;
+    private final AppointmentPager appointmentPager;
+    private final AppointmentStatusQueue appointmentStatusQueue;
 
-    public PatientService(PatientRepository patientRepository, AppointmentRepository appointmentRepository, TokenService tokenService) {
+    public PatientService(PatientRepository patientRepository, AppointmentRepository appointmentRepository,
+                          AppointmentPager appointmentPager, AppointmentStatusQueue appointmentStatusQueue) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
-        this.tokenService = tokenService;
+        this.appointmentPager = appointmentPager;
+        this.appointmentStatusQueue = appointmentStatusQueue;
     }
 
     public int createPatient(Patient patient) {
@@ -36,77 +35,38 @@ public class PatientService {
         }
     }
 
-    @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long patientId) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            List<Appointment> appointments = appointmentRepository.findByPatientId(patientId);
-            List<AppointmentDTO> dtos = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            response.put("appointments", dtos);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            response.put("error", "Error fetching appointments: " + e.getMessage());
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long patientId, String cursor, Integer limit) {
+        return page(cursor, limit, "Error fetching appointments", (afterTime, afterId, page) ->
+                appointmentRepository.findPageByPatientId(patientId, afterTime, afterId, page));
     }
 
-    @Transactional
-    public ResponseEntity<Map<String, Object>> filterByCondition(Long patientId, String condition) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            int status = "past".equalsIgnoreCase(condition) ? 1 : 0;
-            List<Appointment> appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(patientId, status);
-            List<AppointmentDTO> dtos = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            response.put("appointments", dtos);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            response.put("error", "Error filtering appointments: " + e.getMessage());
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    /** Filters on status in the database, so pending status changes are flushed first. */
+    public ResponseEntity<Map<String, Object>> filterByCondition(Long patientId, String condition, String cursor, Integer limit) {
+        appointmentStatusQueue.flush();
+        int status = "past".equalsIgnoreCase(condition) ? 1 : 0;
+        return page(cursor, limit, "Error filtering appointments", (afterTime, afterId, page) ->
+                appointmentRepository.findPageByPatientIdAndStatus(patientId, status, afterTime, afterId, page));
     }
 
-    @Transactional
-    public ResponseEntity<Map<String, Object>> filterByDoctor(Long patientId, String doctorName) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientId(doctorName, patientId);
-            List<AppointmentDTO> dtos = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            response.put("appointments", dtos);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            response.put("error", "Error filtering appointments: " + e.getMessage());
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> filterByDoctor(Long patientId, String doctorName, String cursor, Integer limit) {
+        return page(cursor, limit, "Error filtering appointments", (afterTime, afterId, page) ->
+                appointmentRepository.findPageByDoctorNameAndPatientId(doctorName, patientId, afterTime, afterId, page));
     }
 
-    @Transactional
-    public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(Long patientId, String doctorName, String condition) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            int status = "past".equalsIgnoreCase(condition) ? 1 : 0;
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(doctorName, patientId, status);
-            List<AppointmentDTO> dtos = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            response.put("appointments", dtos);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            response.put("error", "Error filtering appointments: " + e.getMessage());
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(Long patientId, String doctorName, String condition,
+                                                                          String cursor, Integer limit) {
+        appointmentStatusQueue.flush();
+        int status = "past".equalsIgnoreCase(condition) ? 1 : 0;
+        return page(cursor, limit, "Error filtering appointments", (afterTime, afterId, page) ->
+                appointmentRepository.findPageByDoctorNameAndPatientIdAndStatus(doctorName, patientId, status, afterTime, afterId, page));
     }
 
-    public ResponseEntity<Map<String, Object>> getPatientDetails(String token) {
+    public ResponseEntity<Map<String, Object>> getPatientDetails(Long patientId) {
         Map<String, Object> response = new HashMap<>();
         try {
-            String email = tokenService.extractEmail(token);
-            Patient patient = patientRepository.findByEmail(email);
+            Patient patient = patientRepository.findById(patientId).orElse(null);
             if (patient == null) {
                 response.put("error", "Patient not found");
                 return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
@@ -118,4 +78,18 @@ public class PatientService {
             return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    private ResponseEntity<Map<String, Object>> page(String cursor, Integer limit, String errorMessage,
+                                                     AppointmentPager.PageQuery query) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            return new ResponseEntity<>(appointmentPager.page(cursor, limit, query), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            response.put("error", errorMessage + ": " + e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
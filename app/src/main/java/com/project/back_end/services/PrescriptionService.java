@@ -2,9 +2,14 @@ package com.project.back_end.services;
 
 import com.project.back_end.models.Prescription;
 import com.project.back_end.repo.PrescriptionRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +17,9 @@ import java.util.Map;
 @Service
 public class PrescriptionService {
 
+    @Value("${prescriptions.batch.max-ids:200}")
+    private int maxBatchIds;
+
     private final PrescriptionRepository prescriptionRepository;
 
     public PrescriptionService(PrescriptionRepository prescriptionRepository) {
@@ -35,6 +43,7 @@ public class PrescriptionService {
         }
     }
 
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getPrescription(Long appointmentId) {
         Map<String, Object> response = new HashMap<>();
         try {
@@ -46,4 +55,34 @@ public class PrescriptionService {
             return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /** Prescriptions for any of the doctor's appointments among {@code appointmentIds}; ids of other doctors are ignored. */
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getPrescriptions(Long doctorId, Collection<Long> appointmentIds) {
+        Map<String, Object> response = new HashMap<>();
+        if (appointmentIds.isEmpty() || appointmentIds.size() > maxBatchIds) {
+            response.put("error", "Between 1 and " + maxBatchIds + " appointment ids are required");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            response.put("prescriptions", prescriptionRepository.findByDoctorIdAndAppointmentIdIn(doctorId, appointmentIds));
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            response.put("error", "Error fetching prescriptions: " + e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getPrescriptions(Long doctorId, LocalDate date) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("prescriptions", prescriptionRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId,
+                    date.atStartOfDay(), date.atTime(LocalTime.MAX)));
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            response.put("error", "Error fetching prescriptions: " + e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
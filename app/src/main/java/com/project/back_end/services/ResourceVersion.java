@@ -0,0 +1,18 @@
+package com.project.back_end.services;
+
+/**
+ * Validators for a conditional GET, taken from an in-memory change counter rather than a hash of the body.
+ * The etag is strong and already quoted; it embeds the process start so tags never repeat across restarts.
+ * Responses that Tomcat should be free to compress carry the {@link #weak()} form instead, since it leaves any
+ * response with a strong etag uncompressed.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    public ResourceVersion weak() {
+        return etag.startsWith("W/") ? this : new ResourceVersion("W/" + etag, lastModified);
+    }
+
+    static ResourceVersion of(String prefix, String epoch, long counter, long lastModified) {
+        return new ResourceVersion("\"" + prefix + epoch + "-" + counter + "\"", lastModified);
+    }
+}
@@ -4,34 +4,35 @@ import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
-import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @org.springframework.stereotype.Service
 public class Service {
 
     private final TokenService tokenService;
     private final AdminRepository adminRepository;
-    private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final PatientService patientService;
     private final DoctorService doctorService;
+    private final SlotInventory slotInventory;
+    private final DoctorSearchIndex doctorSearchIndex;
 
-    public Service(TokenService tokenService, AdminRepository adminRepository, DoctorRepository doctorRepository,
-                   PatientRepository patientRepository, PatientService patientService, DoctorService doctorService) {
+    public Service(TokenService tokenService, AdminRepository adminRepository, PatientRepository patientRepository,
+                   PatientService patientService, DoctorService doctorService, SlotInventory slotInventory,
+                   DoctorSearchIndex doctorSearchIndex) {
         this.tokenService = tokenService;
         this.adminRepository = adminRepository;
-        this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.patientService = patientService;
         this.doctorService = doctorService;
+        this.slotInventory = slotInventory;
+        this.doctorSearchIndex = doctorSearchIndex;
     }
 
     public ResponseEntity<Map<String, String>> validateToken(String token, String role) {
@@ -70,42 +71,11 @@ public class Service {
         boolean hasSpecialty = specialty != null && !specialty.isEmpty() && !specialty.equals("null");
         boolean hasTime = time != null && !time.isEmpty() && !time.equals("null");
 
-        if (hasName && hasSpecialty && hasTime) {
-            return doctorService.filterDoctorsByNameSpecialityAndTime(name, specialty, time);
-        } else if (hasName && hasSpecialty) {
-            return doctorService.filterDoctorByNameAndSpecialty(name, specialty);
-        } else if (hasName && hasTime) {
-            return doctorService.filterDoctorByNameAndTime(name, time);
-        } else if (hasSpecialty && hasTime) {
-            return doctorService.filterDoctorByTimeAndSpecialty(time, specialty);
-        } else if (hasName) {
-            return doctorService.findDoctorByName(name);
-        } else if (hasSpecialty) {
-            return doctorService.filterDoctorBySpecialty(specialty);
-        } else if (hasTime) {
-            return doctorService.filterDoctorsByTime(time);
-        } else {
-            return doctorService.getDoctors();
-        }
+        return doctorSearchIndex.search(hasName ? name : null, hasSpecialty ? specialty : null, hasTime ? time : null);
     }
 
-    public int validateAppointment(Long doctorId, LocalTime time) {
-        Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
-        if (doctorOpt.isEmpty()) {
-            return -1;
-        }
-        Doctor doctor = doctorOpt.get();
-        List<String> availableTimes = doctor.getAvailableTimes();
-        if (availableTimes == null) {
-            return 0;
-        }
-        String timeStr = time.toString();
-        for (String slot : availableTimes) {
-            if (slot.equals(timeStr)) {
-                return 1;
-            }
-        }
-        return 0;
+    public int validateAppointment(Long doctorId, LocalDateTime time) {
+        return slotInventory.checkSlot(doctorId, time);
     }
 
     public boolean validatePatient(Patient patient) {
@@ -136,32 +106,19 @@ public class Service {
         }
     }
 
-    public ResponseEntity<Map<String, Object>> filterPatient(String token, String condition, String doctorName) {
-        try {
-            String email = tokenService.extractEmail(token);
-            Patient patient = patientRepository.findByEmail(email);
-            if (patient == null) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("error", "Patient not found");
-                return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
-            }
-
-            boolean hasCondition = condition != null && !condition.isEmpty() && !condition.equals("null");
-            boolean hasDoctor = doctorName != null && !doctorName.isEmpty() && !doctorName.equals("null");
+    public ResponseEntity<Map<String, Object>> filterPatient(Long patientId, String condition, String doctorName,
+                                                             String cursor, Integer limit) {
+        boolean hasCondition = condition != null && !condition.isEmpty() && !condition.equals("null");
+        boolean hasDoctor = doctorName != null && !doctorName.isEmpty() && !doctorName.equals("null");
 
-            if (hasCondition && hasDoctor) {
-                return patientService.filterByDoctorAndCondition(patient.getId(), doctorName, condition);
-            } else if (hasCondition) {
-                return patientService.filterByCondition(patient.getId(), condition);
-            } else if (hasDoctor) {
-                return patientService.filterByDoctor(patient.getId(), doctorName);
-            } else {
-                return patientService.getPatientAppointment(patient.getId());
-            }
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("error", "Error filtering appointments: " + e.getMessage());
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        if (hasCondition && hasDoctor) {
+            return patientService.filterByDoctorAndCondition(patientId, doctorName, condition, cursor, limit);
+        } else if (hasCondition) {
+            return patientService.filterByCondition(patientId, condition, cursor, limit);
+        } else if (hasDoctor) {
+            return patientService.filterByDoctor(patientId, doctorName, cursor, limit);
+        } else {
+            return patientService.getPatientAppointment(patientId, cursor, limit);
         }
     }
 }
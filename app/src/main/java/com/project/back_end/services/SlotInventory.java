@@ -0,0 +1,415 @@
+package com.project.back_end.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.back_end.DTO.AvailableSlot;
+import com.project.back_end.DTO.BookedSlot;
+import com.project.back_end.config.ReplicaRouting;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.WeeklySchedule;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-doctor, per-day slot inventory kept as minute-of-day bitmaps.
+ * The doctor's weekly schedule is loaded once per doctor, booked slots once per doctor-day;
+ * after that availability reads and booking checks are plain bit operations. Every change to a day's
+ * bookings takes a fresh stamp from one process-wide sequence, which clients use as the availability etag.
+ * <p>
+ * Cached days are bounded by {@code availability.cache.max-days} and reloaded {@code availability.cache.ttl}
+ * after loading, so bookings made by another instance or directly in the database show up within the TTL, with a
+ * fresh stamp. Days past {@code availability.booking-horizon-days} are never bookable and never cached.
+ */
+@Component
+public class SlotInventory {
+
+    static final int WORDS = WeeklySchedule.WORDS;
+
+    @Value("${availability.cache.max-days:100000}")
+    private long maxCachedDays;
+
+    @Value("${availability.cache.ttl:5m}")
+    private Duration cachedDayTtl;
+
+    @Value("${availability.booking-horizon-days:365}")
+    private int bookingHorizonDays;
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, WeeklySchedule> schedules = new ConcurrentHashMap<>();
+    private final AtomicLong stamps = new AtomicLong();
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    private Map<DayKey, Day> bookedDays;
+
+    public SlotInventory(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository,
+                         MeterRegistry meterRegistry) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        Cache<DayKey, Day> days = Caffeine.newBuilder()
+                .maximumSize(maxCachedDays)
+                .expireAfterWrite(cachedDayTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "slotInventoryDays");
+        bookedDays = days.asMap();
+    }
+
+    /** Whether {@code date} is no later than the booking horizon; availability is only served and cached up to it. */
+    public boolean isWithinHorizon(LocalDate date) {
+        return !date.isAfter(LocalDate.now().plusDays(bookingHorizonDays));
+    }
+
+    public int getBookingHorizonDays() {
+        return bookingHorizonDays;
+    }
+
+    public List<String> getAvailableSlots(Long doctorId, LocalDate date) {
+        WeeklySchedule schedule = schedule(doctorId);
+        if (schedule == null) {
+            return Collections.emptyList();
+        }
+        return freeSlots(schedule, date, day(doctorId, date));
+    }
+
+    /** Free slots for every day from {@code from} to {@code to} inclusive, in date order; uncached days are loaded with one query. */
+    public Map<LocalDate, List<String>> getAvailableSlots(Long doctorId, LocalDate from, LocalDate to) {
+        Map<LocalDate, List<String>> free = new LinkedHashMap<>();
+        WeeklySchedule schedule = schedule(doctorId);
+        if (schedule == null) {
+            return free;
+        }
+        List<Day> days = days(doctorId, from, to);
+        for (int i = 0; i < days.size(); i++) {
+            LocalDate date = from.plusDays(i);
+            free.put(date, freeSlots(schedule, date, days.get(i)));
+        }
+        return free;
+    }
+
+    /** Version of {@link #getAvailableSlots} for the day; read it before the slots so a racing change only makes it older. */
+    public ResourceVersion version(Long doctorId, LocalDate date) {
+        if (schedule(doctorId) == null) {
+            return ResourceVersion.of("a", epoch, 0, -1);
+        }
+        Day day = day(doctorId, date);
+        return ResourceVersion.of("a", epoch, day.stamp, day.modifiedAt);
+    }
+
+    /**
+     * Version of the range: stamps come from one increasing sequence, so a change to any day in it
+     * raises the newest stamp in the range.
+     */
+    public ResourceVersion version(Long doctorId, LocalDate from, LocalDate to) {
+        if (schedule(doctorId) == null) {
+            return ResourceVersion.of("r", epoch, 0, -1);
+        }
+        long stamp = 0;
+        long modifiedAt = -1;
+        for (Day day : days(doctorId, from, to)) {
+            stamp = Math.max(stamp, day.stamp);
+            modifiedAt = Math.max(modifiedAt, day.modifiedAt);
+        }
+        return ResourceVersion.of("r", epoch, stamp, modifiedAt);
+    }
+
+    /**
+     * The first {@code limit} free slots across {@code doctors} after {@code after} and up to the end of {@code to},
+     * in time order, restricted to minutes of day in {@code [fromMinute, toMinute)}. Schedules come from the given
+     * doctors. Bookings are loaded a week at a time for all doctors in one range query, and each day's free bitmaps
+     * are merged word by word, so the search usually stops within the first week.
+     */
+    public List<AvailableSlot> findEarliest(List<Doctor> doctors, LocalDateTime after, LocalDate to,
+                                            int fromMinute, int toMinute, int limit) {
+        List<AvailableSlot> slots = new ArrayList<>();
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).toList();
+        long[] free = new long[doctors.size()];
+        LocalDate first = after.toLocalDate();
+        for (LocalDate weekStart = first; !doctors.isEmpty() && !weekStart.isAfter(to); weekStart = weekStart.plusWeeks(1)) {
+            LocalDate weekEnd = weekStart.plusDays(6).isAfter(to) ? to : weekStart.plusDays(6);
+            Map<Long, List<Day>> days = days(doctorIds, weekStart, weekEnd);
+            for (int offset = 0; !weekStart.plusDays(offset).isAfter(weekEnd); offset++) {
+                LocalDate date = weekStart.plusDays(offset);
+                int start = date.equals(first) ? Math.max(fromMinute, after.getHour() * 60 + after.getMinute() + 1) : fromMinute;
+                for (int w = start >>> 6; w < WORDS && (w << 6) < toMinute; w++) {
+                    long window = window(w, start, toMinute);
+                    for (int d = 0; d < free.length; d++) {
+                        Day day = days.get(doctorIds.get(d)).get(offset);
+                        free[d] = doctors.get(d).getSchedule().word(date.getDayOfWeek(), w) & ~day.booked.get(w) & window;
+                    }
+                    while (true) {
+                        int next = 64;
+                        for (long bits : free) {
+                            if (bits != 0) next = Math.min(next, Long.numberOfTrailingZeros(bits));
+                        }
+                        if (next == 64) {
+                            break;
+                        }
+                        int minute = (w << 6) + next;
+                        for (int d = 0; d < free.length; d++) {
+                            if ((free[d] & (1L << next)) == 0) continue;
+                            free[d] &= ~(1L << next);
+                            Doctor doctor = doctors.get(d);
+                            slots.add(new AvailableSlot(doctor.getId(), doctor.getName(), doctor.getSpecialty(),
+                                    date.atTime(minute / 60, minute % 60)));
+                            if (slots.size() >= limit) {
+                                return slots;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    public int checkSlot(Long doctorId, LocalDateTime time) {
+        WeeklySchedule schedule = schedule(doctorId);
+        if (schedule == null) {
+            return -1;
+        }
+        int minute = minuteOf(time.toLocalTime());
+        if (minute < 0 || !isWithinHorizon(time.toLocalDate()) || !schedule.isAvailable(time.getDayOfWeek(), minute)) {
+            return 0;
+        }
+        return isSet(day(doctorId, time.toLocalDate()).booked, minute) ? 0 : 1;
+    }
+
+    public boolean reserve(Long doctorId, LocalDateTime time) {
+        if (checkSlot(doctorId, time) != 1 || !mark(doctorId, time)) {
+            return false;
+        }
+        afterCompletion(false, () -> clear(doctorId, time));
+        return true;
+    }
+
+    /**
+     * Reserves every time or none. Returns the times that could not be reserved; when the list is empty
+     * all of them are held until the surrounding transaction completes, and released if it rolls back.
+     */
+    public List<LocalDateTime> reserveAll(Long doctorId, List<LocalDateTime> times) {
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        for (LocalDateTime time : times) {
+            if (checkSlot(doctorId, time) != 1) conflicts.add(time);
+        }
+        if (!conflicts.isEmpty()) {
+            return conflicts;
+        }
+        for (int i = 0; i < times.size(); i++) {
+            if (!mark(doctorId, times.get(i))) {
+                for (int j = 0; j < i; j++) clear(doctorId, times.get(j));
+                return List.of(times.get(i));
+            }
+        }
+        afterCompletion(false, () -> times.forEach(time -> clear(doctorId, time)));
+        return conflicts;
+    }
+
+    public void release(Long doctorId, LocalDateTime time) {
+        afterCompletion(true, () -> clear(doctorId, time));
+    }
+
+    /**
+     * Drops the cached bookings for a day once the current transaction rolls back, for when the database
+     * rejected a slot this inventory thought was free; the next read reloads the day.
+     */
+    public void invalidateDay(Long doctorId, LocalDate date) {
+        afterCompletion(false, () -> bookedDays.remove(new DayKey(doctorId, date)));
+    }
+
+    public void evictDoctor(Long doctorId) {
+        schedules.remove(doctorId);
+        bookedDays.keySet().removeIf(key -> key.doctorId() == doctorId);
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        bookedDays.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    private WeeklySchedule schedule(Long doctorId) {
+        WeeklySchedule schedule = schedules.get(doctorId);
+        if (schedule != null) {
+            return schedule;
+        }
+        schedule = ReplicaRouting.onPrimary(() -> doctorRepository.findScheduleById(doctorId));
+        if (schedule == null) {
+            return null;
+        }
+        WeeklySchedule existing = schedules.putIfAbsent(doctorId, schedule);
+        return existing != null ? existing : schedule;
+    }
+
+    private Day day(Long doctorId, LocalDate date) {
+        Day day = bookedDays.get(new DayKey(doctorId, date));
+        return day != null ? day : days(doctorId, date, date).get(0);
+    }
+
+    private List<Day> days(Long doctorId, LocalDate from, LocalDate to) {
+        return days(List.of(doctorId), from, to).get(doctorId);
+    }
+
+    /** Each doctor's days from {@code from} to {@code to}; the ones not cached yet are filled from a single range query. */
+    private Map<Long, List<Day>> days(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<Long, List<Day>> days = new HashMap<>();
+        Map<DayKey, Day> loading = new HashMap<>();
+        Set<Long> loadingDoctors = new HashSet<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (Long doctorId : doctorIds) {
+            List<Day> doctorDays = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                DayKey key = new DayKey(doctorId, date);
+                Day day = bookedDays.get(key);
+                if (day == null) {
+                    day = new Day();
+                    loading.put(key, day);
+                    loadingDoctors.add(doctorId);
+                    if (firstMissing == null || date.isBefore(firstMissing)) firstMissing = date;
+                    if (lastMissing == null || date.isAfter(lastMissing)) lastMissing = date;
+                }
+                doctorDays.add(day);
+            }
+            days.put(doctorId, doctorDays);
+        }
+        if (loading.isEmpty()) {
+            return days;
+        }
+        LocalDateTime start = firstMissing.atStartOfDay();
+        LocalDateTime end = lastMissing.atTime(LocalTime.MAX);
+        List<BookedSlot> booked = ReplicaRouting.onPrimary(() ->
+                appointmentRepository.findBookedSlotsByDoctorIdInAndAppointmentTimeBetween(loadingDoctors, start, end));
+        for (BookedSlot slot : booked) {
+            Day day = loading.get(new DayKey(slot.getDoctorId(), slot.getAppointmentTime().toLocalDate()));
+            int minute = minuteOf(slot.getAppointmentTime().toLocalTime());
+            if (day != null && minute >= 0) day.booked.getAndUpdate(minute >>> 6, bits -> bits | (1L << minute));
+        }
+        for (Long doctorId : loadingDoctors) {
+            List<Day> doctorDays = days.get(doctorId);
+            for (int i = 0; i < doctorDays.size(); i++) {
+                DayKey key = new DayKey(doctorId, from.plusDays(i));
+                Day day = loading.get(key);
+                if (day != null) {
+                    day.touch(stamps.incrementAndGet());
+                    Day existing = bookedDays.putIfAbsent(key, day);
+                    if (existing != null) doctorDays.set(i, existing);
+                }
+            }
+        }
+        return days;
+    }
+
+    private boolean mark(Long doctorId, LocalDateTime time) {
+        int minute = minuteOf(time.toLocalTime());
+        Day day = day(doctorId, time.toLocalDate());
+        int word = minute >>> 6;
+        long mask = 1L << minute;
+        long current;
+        do {
+            current = day.booked.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!day.booked.compareAndSet(word, current, current | mask));
+        day.touch(stamps.incrementAndGet());
+        return true;
+    }
+
+    private void clear(Long doctorId, LocalDateTime time) {
+        int minute = minuteOf(time.toLocalTime());
+        Day day = bookedDays.get(new DayKey(doctorId, time.toLocalDate()));
+        if (minute >= 0 && day != null) {
+            day.booked.getAndUpdate(minute >>> 6, bits -> bits & ~(1L << minute));
+            day.touch(stamps.incrementAndGet());
+        }
+    }
+
+    private static List<String> freeSlots(WeeklySchedule schedule, LocalDate date, Day day) {
+        List<String> free = new ArrayList<>();
+        for (int w = 0; w < WORDS; w++) {
+            long bits = schedule.word(date.getDayOfWeek(), w) & ~day.booked.get(w);
+            while (bits != 0) {
+                int minute = (w << 6) + Long.numberOfTrailingZeros(bits);
+                free.add(LocalTime.of(minute / 60, minute % 60).toString());
+                bits &= bits - 1;
+            }
+        }
+        return free;
+    }
+
+    private static void afterCompletion(boolean onCommit, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) action.run();
+            }
+        });
+    }
+
+    static int minuteOf(LocalTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /** Bits of word {@code w} for the minutes in {@code [from, to)}. */
+    static long window(int w, int from, int to) {
+        int low = from - (w << 6);
+        int high = to - (w << 6);
+        long mask = low <= 0 ? -1L : low >= 64 ? 0 : -1L << low;
+        return high >= 64 ? mask : high <= 0 ? 0 : mask & (-1L >>> (64 - high));
+    }
+
+    private static boolean isSet(AtomicLongArray bits, int minute) {
+        return (bits.get(minute >>> 6) & (1L << minute)) != 0;
+    }
+
+    private record DayKey(long doctorId, LocalDate date) {}
+
+    private static final class Day {
+        private final AtomicLongArray booked = new AtomicLongArray(WORDS);
+        private volatile long stamp;
+        private volatile long modifiedAt;
+
+        private void touch(long newStamp) {
+            modifiedAt = System.currentTimeMillis();
+            stamp = newStamp;
+        }
+    }
+}
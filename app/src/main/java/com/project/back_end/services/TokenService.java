@@ -1,14 +1,30 @@
 package com.project.back_end.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class TokenService {
@@ -16,18 +32,51 @@ public class TokenService {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${token.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${token.cache.ttl:10m}")
+    private Duration cacheTtl;
+
     private final AdminRepository adminRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final MeterRegistry meterRegistry;
+    private final Counter cachedTokens;
+    private final Counter validTokens;
+    private final Counter unknownUserTokens;
+    private final Counter invalidTokens;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<PrincipalKey, AuthPrincipal> principals;
 
-    public TokenService(AdminRepository adminRepository, DoctorRepository doctorRepository, PatientRepository patientRepository) {
+    public TokenService(AdminRepository adminRepository, DoctorRepository doctorRepository, PatientRepository patientRepository,
+                        MeterRegistry meterRegistry) {
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
+        this.meterRegistry = meterRegistry;
+        this.cachedTokens = validationCounter(meterRegistry, "cached");
+        this.validTokens = validationCounter(meterRegistry, "valid");
+        this.unknownUserTokens = validationCounter(meterRegistry, "unknown_user");
+        this.invalidTokens = validationCounter(meterRegistry, "invalid");
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        principals = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "tokenPrincipals");
     }
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(String email) {
@@ -41,29 +90,83 @@ public class TokenService {
     }
 
     public String extractEmail(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parser.parseSignedClaims(token).getPayload().getSubject();
     }
 
     public boolean validateToken(String token, String role) {
+        return resolvePrincipal(token, role) != null;
+    }
+
+    public AuthPrincipal resolvePrincipal(String token, String role) {
+        if (token == null || role == null) {
+            invalidTokens.increment();
+            return null;
+        }
+        PrincipalKey key = new PrincipalKey(token, role.toLowerCase());
+        AuthPrincipal cached = principals.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                cachedTokens.increment();
+                return cached;
+            }
+            principals.invalidate(key);
+        }
         try {
-            String email = extractEmail(token);
-            switch (role.toLowerCase()) {
-                case "admin":
-                    return adminRepository.findByUsername(email) != null;
-                case "doctor":
-                    return doctorRepository.findByEmail(email) != null;
-                case "patient":
-                    return patientRepository.findByEmail(email) != null;
-                default:
-                    return false;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Long id = lookupId(claims.getSubject(), key.role());
+            if (id == null) {
+                unknownUserTokens.increment();
+                return null;
             }
+            Date expiration = claims.getExpiration();
+            AuthPrincipal principal = new AuthPrincipal(claims.getSubject(), key.role(), id,
+                    expiration != null ? expiration.toInstant() : null);
+            principals.put(key, principal);
+            validTokens.increment();
+            return principal;
         } catch (Exception e) {
-            return false;
+            invalidTokens.increment();
+            return null;
         }
     }
+
+    public void invalidate(String role, Long id) {
+        principals.asMap().values().removeIf(p -> p.getRole().equals(role) && p.getId().equals(id));
+    }
+
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = principals.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", principals.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    private Long lookupId(String email, String role) {
+        switch (role) {
+            case "admin":
+                Admin admin = adminRepository.findByUsername(email);
+                return admin != null ? admin.getId() : null;
+            case "doctor":
+                Doctor doctor = doctorRepository.findByEmail(email);
+                return doctor != null ? doctor.getId() : null;
+            case "patient":
+                Patient patient = patientRepository.findByEmail(email);
+                return patient != null ? patient.getId() : null;
+            default:
+                return null;
+        }
+    }
+
+    private static Counter validationCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("auth.token.validations")
+                .description("Token validations by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record PrincipalKey(String token, String role) {}
 }
@@ -0,0 +1,80 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds doctor_available_times into a single doctors.schedule column. Existing slots apply to every weekday,
+ * so each doctor gets the uniform encoding: a 0 byte followed by one minute-of-day bitmap of {@value #WORDS}
+ * big-endian longs. Slots that are not "HH:mm" times are dropped. The encoding is spelled out here rather than
+ * borrowed from WeeklySchedule so that this migration keeps writing what it wrote when it shipped.
+ */
+public class V5__doctor_weekly_schedule extends BaseJavaMigration {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+    private static final byte UNIFORM = 0;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE doctors ADD COLUMN schedule BYTEA NOT NULL DEFAULT ''::bytea");
+        }
+
+        Map<Long, List<Integer>> slots = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT doctor_id, time_slot FROM doctor_available_times WHERE time_slot IS NOT NULL")) {
+            while (rows.next()) {
+                int minute = minuteOfDay(rows.getString(2));
+                if (minute >= 0) {
+                    slots.computeIfAbsent(rows.getLong(1), id -> new ArrayList<>()).add(minute);
+                }
+            }
+        }
+
+        try (PreparedStatement update = connection.prepareStatement("UPDATE doctors SET schedule = ? WHERE id = ?")) {
+            for (Map.Entry<Long, List<Integer>> doctor : slots.entrySet()) {
+                update.setBytes(1, everyDay(doctor.getValue()));
+                update.setLong(2, doctor.getKey());
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE doctor_available_times");
+        }
+    }
+
+    private static byte[] everyDay(List<Integer> minutes) {
+        long[] bits = new long[WORDS];
+        for (int minute : minutes) {
+            bits[minute >>> 6] |= 1L << minute;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + WORDS * Long.BYTES).put(UNIFORM);
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    private static int minuteOfDay(String slot) {
+        try {
+            LocalTime time = LocalTime.parse(slot.trim());
+            return time.getSecond() == 0 && time.getNano() == 0 ? time.getHour() * 60 + time.getMinute() : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
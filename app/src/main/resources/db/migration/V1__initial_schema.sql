@@ -0,0 +1,48 @@
+-- Schema previously created by ddl-auto=update. Existing databases are baselined at this version.
+
+CREATE TABLE IF NOT EXISTS admins (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS doctors (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name      VARCHAR(100) NOT NULL,
+    specialty VARCHAR(50)  NOT NULL,
+    email     VARCHAR(255) NOT NULL UNIQUE,
+    password  VARCHAR(255) NOT NULL,
+    phone     VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS doctor_available_times (
+    doctor_id BIGINT NOT NULL REFERENCES doctors (id),
+    time_slot VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS patients (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name     VARCHAR(100) NOT NULL,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    phone    VARCHAR(255) NOT NULL UNIQUE,
+    address  VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS appointments (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    doctor_id        BIGINT       NOT NULL REFERENCES doctors (id),
+    patient_id       BIGINT       NOT NULL REFERENCES patients (id),
+    appointment_time TIMESTAMP(6) NOT NULL,
+    status           INTEGER      NOT NULL,
+    condition        VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS prescriptions (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_name   VARCHAR(100) NOT NULL,
+    appointment_id BIGINT       NOT NULL,
+    medication     VARCHAR(100) NOT NULL,
+    dosage         VARCHAR(255) NOT NULL,
+    doctor_notes   VARCHAR(200)
+);
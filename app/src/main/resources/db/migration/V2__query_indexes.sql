@@ -0,0 +1,27 @@
+-- Secondary indexes for the repository query paths.
+-- patients(email) and patients(phone) are already covered by their unique constraints.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- findByDoctorIdAndAppointmentTimeBetween, availability and slot inventory loads
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_time
+    ON appointments (doctor_id, appointment_time);
+
+-- findByPatientId, findByPatient_IdAndStatusOrderByAppointmentTimeAsc, filterByDoctorNameAndPatientId*
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_status_time
+    ON appointments (patient_id, status, appointment_time);
+
+-- findByAppointmentId
+CREATE INDEX IF NOT EXISTS idx_prescriptions_appointment
+    ON prescriptions (appointment_id);
+
+-- availableTimes collection loads
+CREATE INDEX IF NOT EXISTS idx_doctor_available_times_doctor
+    ON doctor_available_times (doctor_id);
+
+-- LOWER(name) LIKE '%x%' searches in AppointmentRepository
+CREATE INDEX IF NOT EXISTS idx_patients_name_trgm
+    ON patients USING gin (LOWER(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_doctors_name_trgm
+    ON doctors USING gin (LOWER(name) gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Keyset pagination over a patient's appointments seeks on (appointment_time, id).
+
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_time
+    ON appointments (patient_id, appointment_time, id);
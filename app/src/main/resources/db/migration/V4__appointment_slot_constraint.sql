@@ -0,0 +1,11 @@
+-- One appointment per doctor and start time. Cancelled appointments are deleted, so every row is active.
+-- Replaces idx_appointments_doctor_time, which covered the same columns without uniqueness.
+-- Fails if duplicate bookings already exist; resolve them before migrating.
+ALTER TABLE appointments
+    ADD CONSTRAINT uq_appointments_doctor_time UNIQUE (doctor_id, appointment_time);
+
+DROP INDEX IF EXISTS idx_appointments_doctor_time;
+
+-- Optimistic locking for appointment updates.
+ALTER TABLE appointments
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
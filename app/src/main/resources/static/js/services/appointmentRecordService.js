@@ -3,14 +3,33 @@ import { API_BASE_URL } from "../config/config.js";
 const APPOINTMENT_API = `${API_BASE_URL}/appointments`;
 
 
+// Appointment lists come back a page at a time; this follows nextCursor until the last page
+// and returns the last page's body with the appointments of every page.
+export async function fetchAllAppointments(url, options) {
+  const appointments = [];
+  let cursor = null;
+  let data;
+  do {
+    const page = cursor ? `${url}${url.includes("?") ? "&" : "?"}cursor=${encodeURIComponent(cursor)}` : url;
+    const response = await fetch(page, options);
+    if (!response.ok) {
+      return { ok: false, statusText: response.statusText, data: null };
+    }
+    data = await response.json();
+    appointments.push(...(data.appointments || []));
+    cursor = data.nextCursor;
+  } while (cursor);
+  return { ok: true, data: { ...data, appointments } };
+}
+
 //This is for the doctor to get all the patient Appointments
 export async function getAllAppointments(date, patientName, token) {
-  const response = await fetch(`${APPOINTMENT_API}/${date}/${patientName}/${token}`);
-  if (!response.ok) {
+  const { ok, data } = await fetchAllAppointments(`${APPOINTMENT_API}/${date}/${patientName}/${token}`);
+  if (!ok) {
     throw new Error("Failed to fetch appointments");
   }
 
-  return await response.json();
+  return data;
 }
 
 export async function bookAppointment(appointment, token) {
@@ -1,5 +1,6 @@
 // patientServices
 import { API_BASE_URL } from "../config/config.js";
+import { fetchAllAppointments } from "./appointmentRecordService.js";
 const PATIENT_API = API_BASE_URL + '/patient'
 
 
@@ -57,10 +58,8 @@ export async function getPatientData(token) {
 // the Backend API for fetching the patient record(visible in Doctor Dashboard) and Appointments (visible in Patient Dashboard) are same based on user(patient/doctor).
 export async function getPatientAppointments(id, token, user) {
   try {
-    const response = await fetch(`${PATIENT_API}/${id}/${user}/${token}`);
-    const data = await response.json();
-    console.log(data.appointments)
-    if (response.ok) {
+    const { ok, data } = await fetchAllAppointments(`${PATIENT_API}/${id}/${user}/${token}`);
+    if (ok) {
       return data.appointments;
     }
     return null;
@@ -73,19 +72,18 @@ export async function getPatientAppointments(id, token, user) {
 
 export async function filterAppointments(condition, name, token) {
   try {
-    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}/${token}`, {
+    const { ok, statusText, data } = await fetchAllAppointments(`${PATIENT_API}/filter/${condition}/${name}/${token}`, {
       method: "GET",
       headers: {
         "Content-Type": "application/json",
       },
     });
 
-    if (response.ok) {
-      const data = await response.json();
+    if (ok) {
       return data;
 
     } else {
-      console.error("Failed to fetch doctors:", response.statusText);
+      console.error("Failed to fetch doctors:", statusText);
       return { appointments: [] };
 
     }
@@ -0,0 +1,53 @@
+package com.project.back_end.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Points the replica at the same database under another application name, so the name reported by
+ * the server shows which pool served each transaction. Requires PGHOST and friends.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.replica.url=jdbc:postgresql://${PGHOST}:${PGPORT}/${PGDATABASE}?ApplicationName=replica",
+        "spring.datasource.hikari.data-source-properties.ApplicationName=primary"
+})
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class ReplicaRoutingTests {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", applicationName(true));
+        assertEquals("primary", applicationName(false));
+    }
+
+    @Test
+    void pinnedReadsUseThePrimary() {
+        assertEquals("primary", ReplicaRouting.onPrimary(() -> applicationName(true)));
+        assertEquals("replica", applicationName(true));
+    }
+
+    @Test
+    void statementsOutsideTransactionsUseThePrimary() {
+        assertEquals("primary", jdbc.queryForObject("SELECT current_setting('application_name')", String.class));
+    }
+
+    private String applicationName(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbc.queryForObject("SELECT current_setting('application_name')", String.class));
+    }
+}
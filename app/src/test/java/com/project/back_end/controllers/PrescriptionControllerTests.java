@@ -0,0 +1,111 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.services.TokenService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls the prescription list endpoints as one of two doctors who both have an appointment on the same day,
+ * and checks the caller only ever gets their own prescriptions back.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@Transactional
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class PrescriptionControllerTests {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(30);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private Doctor caller;
+    private Doctor other;
+    private Appointment own;
+    private Appointment foreign;
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        caller = doctor("Caller", run);
+        other = doctor("Other", run);
+        Patient patient = new Patient("Prescription Patient", "prescription.patient." + run + "@clinic.test", "secret1",
+                "5550007777", "Street");
+        entityManager.persist(patient);
+        own = new Appointment(caller, patient, DAY.atTime(9, 0), 1, "checkup");
+        foreign = new Appointment(other, patient, DAY.atTime(10, 0), 1, "checkup");
+        entityManager.persist(own);
+        entityManager.persist(foreign);
+        entityManager.persist(new Prescription("Prescription Patient", own.getId(), "Amoxicillin", "500mg", null));
+        entityManager.persist(new Prescription("Prescription Patient", foreign.getId(), "Ibuprofen", "200mg", null));
+        entityManager.flush();
+        entityManager.clear();
+        token = tokenService.generateToken(caller.getEmail());
+    }
+
+    @Test
+    void batchDropsAnotherDoctorsAppointments() throws Exception {
+        mvc.perform(get("/prescription/batch/{token}", token)
+                        .param("appointmentIds", own.getId().toString(), foreign.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prescriptions", hasSize(1)))
+                .andExpect(jsonPath("$.prescriptions[0].appointmentId").value(own.getId()))
+                .andExpect(jsonPath("$.prescriptions[0].medication").value("Amoxicillin"));
+    }
+
+    @Test
+    void dayListHoldsOnlyTheCallersAppointments() throws Exception {
+        mvc.perform(get("/prescription/{doctorId}/{date}/{token}", caller.getId(), DAY, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prescriptions", hasSize(1)))
+                .andExpect(jsonPath("$.prescriptions[0].appointmentId").value(own.getId()));
+    }
+
+    @Test
+    void anotherDoctorsDayIsUnauthorizedWithAnErrorBody() throws Exception {
+        mvc.perform(get("/prescription/{doctorId}/{date}/{token}", other.getId(), DAY, token))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").isNotEmpty());
+    }
+
+    @Test
+    void malformedDateIsBadRequestWithAnErrorBody() throws Exception {
+        mvc.perform(get("/prescription/{doctorId}/{date}/{token}", caller.getId(), "2030-13-45", token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").isNotEmpty());
+    }
+
+    private Doctor doctor(String name, String run) {
+        Doctor doctor = new Doctor(name + " Doctor", "Cardiology", name.toLowerCase() + ".doctor." + run + "@clinic.test",
+                "secret1", "5550007778", List.of("09:00", "10:00"));
+        entityManager.persist(doctor);
+        return doctor;
+    }
+}
@@ -0,0 +1,152 @@
+package com.project.back_end.models;
+
+import db.migration.V5__doctor_weekly_schedule;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the {@link WeeklySchedule} byte encodings through {@link WeeklyScheduleConverter}, slot parsing, the
+ * morning/afternoon split at noon, and that the V5 migration writes the same bytes as {@link WeeklySchedule#everyDay}.
+ */
+class WeeklyScheduleTests {
+
+    private static final int NINE = 9 * 60;
+    private static final int LAST_MINUTE = WeeklySchedule.MINUTES_PER_DAY - 1;
+
+    private final WeeklyScheduleConverter converter = new WeeklyScheduleConverter();
+
+    @Test
+    void uniformScheduleRoundTripsAsOneBitmap() {
+        WeeklySchedule schedule = WeeklySchedule.everyDay(List.of("23:59", "09:00", "00:00", "12:00"));
+
+        byte[] bytes = converter.convertToDatabaseColumn(schedule);
+
+        assertEquals(1 + WeeklySchedule.WORDS * Long.BYTES, bytes.length);
+        assertEquals(0, bytes[0]);
+        WeeklySchedule read = converter.convertToEntityAttribute(bytes);
+        assertEquals(schedule, read);
+        assertArrayEquals(bytes, read.toBytes());
+        assertEquals(List.of("00:00", "09:00", "12:00", "23:59"), read.getTimes());
+        for (DayOfWeek day : DayOfWeek.values()) {
+            assertTrue(read.isAvailable(day, NINE));
+            assertFalse(read.isAvailable(day, NINE + 1));
+        }
+    }
+
+    @Test
+    void perDayScheduleRoundTripsAsSevenBitmaps() {
+        long[][] days = new long[7][WeeklySchedule.WORDS];
+        set(days[DayOfWeek.MONDAY.ordinal()], NINE);
+        set(days[DayOfWeek.SUNDAY.ordinal()], LAST_MINUTE);
+        byte[] bytes = perDay(days);
+
+        WeeklySchedule schedule = converter.convertToEntityAttribute(bytes);
+
+        assertTrue(schedule.isAvailable(DayOfWeek.MONDAY, NINE));
+        assertFalse(schedule.isAvailable(DayOfWeek.TUESDAY, NINE));
+        assertTrue(schedule.isAvailable(DayOfWeek.SUNDAY, LAST_MINUTE));
+        assertFalse(schedule.isAvailable(DayOfWeek.MONDAY, LAST_MINUTE));
+        assertTrue(schedule.isAvailable(LocalDateTime.of(2030, 1, 7, 9, 0)));
+        assertFalse(schedule.isAvailable(LocalDateTime.of(2030, 1, 7, 9, 0, 30)));
+        assertEquals(List.of("09:00", "23:59"), schedule.getTimes());
+        assertArrayEquals(bytes, converter.convertToDatabaseColumn(schedule));
+    }
+
+    @Test
+    void emptyScheduleIsNoBytesAndNoSlots() {
+        assertSame(WeeklySchedule.EMPTY, WeeklySchedule.everyDay(List.of()));
+        assertSame(WeeklySchedule.EMPTY, WeeklySchedule.everyDay(null));
+        assertSame(WeeklySchedule.EMPTY, converter.convertToEntityAttribute(new byte[0]));
+        assertSame(WeeklySchedule.EMPTY, converter.convertToEntityAttribute(null));
+        assertArrayEquals(new byte[0], converter.convertToDatabaseColumn(WeeklySchedule.EMPTY));
+        assertArrayEquals(new byte[0], converter.convertToDatabaseColumn(null));
+
+        assertTrue(WeeklySchedule.EMPTY.isEmpty());
+        assertTrue(WeeklySchedule.EMPTY.getTimes().isEmpty());
+        assertFalse(WeeklySchedule.EMPTY.hasMorning());
+        assertFalse(WeeklySchedule.EMPTY.hasAfternoon());
+        assertFalse(WeeklySchedule.EMPTY.isAvailable(DayOfWeek.MONDAY, 0));
+    }
+
+    @Test
+    void unknownFormatByteIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.fromBytes(new byte[]{2}));
+    }
+
+    @Test
+    void parseSlotAcceptsOnlyWholeMinuteTimes() {
+        assertEquals(NINE, WeeklySchedule.parseSlot("09:00"));
+        assertEquals(NINE, WeeklySchedule.parseSlot(" 09:00 "));
+        assertEquals(NINE, WeeklySchedule.parseSlot("09:00:00"));
+        assertEquals(LAST_MINUTE, WeeklySchedule.parseSlot("23:59"));
+
+        assertEquals(-1, WeeklySchedule.parseSlot("09:00:30"));
+        assertEquals(-1, WeeklySchedule.parseSlot("9:00"));
+        assertEquals(-1, WeeklySchedule.parseSlot("24:00"));
+        assertEquals(-1, WeeklySchedule.parseSlot("12:60"));
+        assertEquals(-1, WeeklySchedule.parseSlot("noon"));
+        assertEquals(-1, WeeklySchedule.parseSlot(""));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.everyDay(List.of("09:00", "25:00")));
+    }
+
+    @Test
+    void noonBelongsToTheAfternoon() {
+        WeeklySchedule beforeNoon = WeeklySchedule.everyDay(List.of("11:59"));
+        WeeklySchedule atNoon = WeeklySchedule.everyDay(List.of("12:00"));
+
+        assertTrue(beforeNoon.hasMorning());
+        assertFalse(beforeNoon.hasAfternoon());
+        assertFalse(atNoon.hasMorning());
+        assertTrue(atNoon.hasAfternoon());
+    }
+
+    @Test
+    void perDayMorningAndAfternoonCoverEveryDay() {
+        long[][] days = new long[7][WeeklySchedule.WORDS];
+        set(days[DayOfWeek.TUESDAY.ordinal()], WeeklySchedule.NOON - 1);
+        set(days[DayOfWeek.FRIDAY.ordinal()], WeeklySchedule.NOON);
+
+        WeeklySchedule schedule = WeeklySchedule.fromBytes(perDay(days));
+
+        assertTrue(schedule.hasMorning());
+        assertTrue(schedule.hasAfternoon());
+    }
+
+    @Test
+    void v5MigrationWritesTheEveryDayEncoding() {
+        byte[] migrated = ReflectionTestUtils.invokeMethod(V5__doctor_weekly_schedule.class, "everyDay",
+                List.of(0, NINE, WeeklySchedule.NOON, LAST_MINUTE));
+
+        assertArrayEquals(WeeklySchedule.everyDay(List.of("00:00", "09:00", "12:00", "23:59")).toBytes(), migrated);
+        for (String slot : List.of("09:00", "09:00:00", "09:00:30", "9:00", "24:00", "noon")) {
+            assertEquals(WeeklySchedule.parseSlot(slot),
+                    (int) ReflectionTestUtils.invokeMethod(V5__doctor_weekly_schedule.class, "minuteOfDay", slot), slot);
+        }
+    }
+
+    private static void set(long[] bits, int minute) {
+        bits[minute >>> 6] |= 1L << minute;
+    }
+
+    private static byte[] perDay(long[][] days) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 7 * WeeklySchedule.WORDS * Long.BYTES).put((byte) 1);
+        for (long[] day : days) {
+            for (long word : day) {
+                buffer.putLong(word);
+            }
+        }
+        return buffer.array();
+    }
+}
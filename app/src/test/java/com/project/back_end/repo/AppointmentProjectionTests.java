@@ -0,0 +1,104 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.PageCursor;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Asserts that each appointment list query is served by exactly one SQL statement,
+ * with no follow-up selects for doctors, patients or available times.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class AppointmentProjectionTests {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(30);
+    private static final PageRequest PAGE = PageRequest.of(0, 50);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long doctorId;
+    private Long patientId;
+
+    @BeforeEach
+    void seed() {
+        Doctor doctor = new Doctor("Projection Doctor", "Cardiology", "projection.doctor@clinic.test", "secret1",
+                "5550001111", List.of("09:00", "10:00", "11:00"));
+        entityManager.persist(doctor);
+        for (int i = 0; i < 3; i++) {
+            Patient patient = new Patient("Projection Patient " + i, "projection.patient" + i + "@clinic.test", "secret1",
+                    "555000200" + i, "Street " + i);
+            entityManager.persist(patient);
+            entityManager.persist(new Appointment(doctor, patient, DAY.atTime(9 + i, 0), i % 2, "checkup"));
+            patientId = patient.getId();
+        }
+        doctorId = doctor.getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void doctorDayIsOneStatement() {
+        assertSingleStatement(() -> appointmentRepository.findPageByDoctorIdAndAppointmentTimeBetween(
+                doctorId, DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX), start(), 0L, PAGE), 3);
+        assertSingleStatement(() -> appointmentRepository.findPageByDoctorIdAndPatientNameAndAppointmentTimeBetween(
+                doctorId, "patient", DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX), start(), 0L, PAGE), 3);
+    }
+
+    @Test
+    void patientListsAreOneStatement() {
+        assertSingleStatement(() -> appointmentRepository.findPageByPatientId(patientId, start(), 0L, PAGE), 1);
+        assertSingleStatement(() -> appointmentRepository.findPageByPatientIdAndStatus(patientId, 0, start(), 0L, PAGE), 1);
+        assertSingleStatement(() -> appointmentRepository.findPageByDoctorNameAndPatientId("projection", patientId, start(), 0L, PAGE), 1);
+        assertSingleStatement(() -> appointmentRepository.findPageByDoctorNameAndPatientIdAndStatus("projection", patientId, 0, start(), 0L, PAGE), 1);
+    }
+
+    private void assertSingleStatement(Supplier<List<AppointmentDTO>> query, int expectedRows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<AppointmentDTO> rows = query.get();
+        rows.forEach(dto -> {
+            dto.getDoctorName();
+            dto.getPatientEmail();
+        });
+
+        assertEquals(expectedRows, rows.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    private static LocalDateTime start() {
+        return PageCursor.START.getAppointmentTime();
+    }
+}
@@ -0,0 +1,246 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.PageCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Calls each hot repository query against a seeded local Postgres, captures the SQL Hibernate
+ * actually sends with its bound values, and fails if EXPLAIN shows a sequential scan of a hot table.
+ * Seeding runs inside the test transaction and is rolled back. Requires PGHOST and friends to point
+ * at a disposable database.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Transactional
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class QueryPlanTests {
+
+    private static final List<String> HOT_TABLES =
+            List.of("appointments", "patients", "doctors", "prescriptions");
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 1);
+    private static final PageRequest PAGE = PageRequest.of(0, 100);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("INSERT INTO doctors (name, specialty, email, password, phone) "
+                + "SELECT 'Doctor ' || i, 'Specialty ' || (i % 20), 'plan.doctor' || i || '@clinic.test', 'secret', '5550000000' "
+                + "FROM generate_series(1, 5000) i");
+        jdbc.execute("INSERT INTO patients (name, email, password, phone, address) "
+                + "SELECT 'Patient ' || i, 'plan.patient' || i || '@clinic.test', 'secret', lpad((9000000000 + i)::text, 10, '0'), 'Street ' || i "
+                + "FROM generate_series(1, 20000) i");
+        jdbc.execute("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status, condition) "
+                + "SELECT d.id, p.id, timestamp '2030-01-01 08:00' + ((g % 3650) || ' days')::interval + ((g % 9) || ' hours')::interval, g % 2, 'checkup' "
+                + "FROM generate_series(1, 200000) g "
+                + "JOIN (SELECT id, row_number() OVER (ORDER BY id) rn FROM doctors WHERE email LIKE 'plan.doctor%') d ON d.rn = 1 + g % 5000 "
+                + "JOIN (SELECT id, row_number() OVER (ORDER BY id) rn FROM patients WHERE email LIKE 'plan.patient%') p ON p.rn = 1 + g % 20000");
+        jdbc.execute("INSERT INTO prescriptions (patient_name, appointment_id, medication, dosage, doctor_notes) "
+                + "SELECT 'Patient', id, 'Medication', '1 daily', 'notes' FROM appointments WHERE id % 2 = 0");
+        for (String table : HOT_TABLES) {
+            jdbc.execute("ANALYZE " + table);
+        }
+    }
+
+    @Test
+    void appointmentsByDoctorAndDay() {
+        assertNoSeqScan(() -> appointmentRepository.findPageByDoctorIdAndAppointmentTimeBetween(
+                doctorId(), DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX), start(), 0L, PAGE));
+        assertNoSeqScan(() -> appointmentRepository.findDtosByDoctorIdAndAppointmentTimeBetween(
+                doctorId(), DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX)));
+        assertNoSeqScan(() -> appointmentRepository.findDtosByDoctorIdAndAppointmentTimeIn(
+                doctorId(), List.of(DAY.atTime(9, 0), DAY.atTime(10, 0))));
+        assertNoSeqScan(() -> appointmentRepository.findDtoById(appointmentId()));
+    }
+
+    @Test
+    void bookedSlotsByDoctorsAndWeek() {
+        assertNoSeqScan(() -> appointmentRepository.findBookedSlotsByDoctorIdInAndAppointmentTimeBetween(
+                List.of(doctorId()), DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX)));
+        assertNoSeqScan(() -> appointmentRepository.findBookedSlotsByDoctorIdInAndAppointmentTimeBetween(
+                List.of(doctorId(), doctorId() + 1, doctorId() + 2), DAY.atStartOfDay(), DAY.plusDays(6).atTime(LocalTime.MAX)));
+    }
+
+    @Test
+    void appointmentsByDoctorDayAndPatientName() {
+        assertNoSeqScan(() -> appointmentRepository.findPageByDoctorIdAndPatientNameAndAppointmentTimeBetween(
+                doctorId(), "tient 12", DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX), start(), 0L, PAGE));
+    }
+
+    @Test
+    void appointmentsByPatient() {
+        assertNoSeqScan(() -> appointmentRepository.findPageByPatientId(patientId(), start(), 0L, PAGE));
+    }
+
+    @Test
+    void appointmentsByPatientAndStatusOrdered() {
+        assertNoSeqScan(() -> appointmentRepository.findPageByPatientIdAndStatus(patientId(), 0, start(), 0L, PAGE));
+    }
+
+    @Test
+    void appointmentsByPatientAndDoctorName() {
+        assertNoSeqScan(() -> appointmentRepository.findPageByDoctorNameAndPatientId("doctor 4", patientId(), start(), 0L, PAGE));
+        assertNoSeqScan(() -> appointmentRepository.findPageByDoctorNameAndPatientIdAndStatus("doctor 4", patientId(), 1, start(), 0L, PAGE));
+    }
+
+    @Test
+    void prescriptionsByAppointment() {
+        assertNoSeqScan(() -> prescriptionRepository.findByAppointmentId(appointmentId()));
+        assertNoSeqScan(() -> prescriptionRepository.findByDoctorIdAndAppointmentIdIn(
+                doctorId(), List.of(appointmentId(), appointmentId() - 2)));
+        assertNoSeqScan(() -> prescriptionRepository.findByDoctorIdAndAppointmentTimeBetween(
+                doctorId(), DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX)));
+    }
+
+    @Test
+    void patientLookups() {
+        assertNoSeqScan(() -> patientRepository.findByEmail("plan.patient42@clinic.test"));
+        assertNoSeqScan(() -> patientRepository.findByEmailOrPhone("plan.patient42@clinic.test", "9000000042"));
+    }
+
+    @Test
+    void doctorLookups() {
+        assertNoSeqScan(() -> doctorRepository.findByEmail("plan.doctor42@clinic.test"));
+        assertNoSeqScan(() -> doctorRepository.findScheduleById(doctorId()));
+    }
+
+    /** Runs the query and checks the plan of every statement it sent. */
+    private void assertNoSeqScan(Runnable query) {
+        List<String> statements = statementCapture.capture(query);
+        assertFalse(statements.isEmpty(), "query sent no SQL");
+        statements.forEach(this::assertNoSeqScan);
+    }
+
+    private void assertNoSeqScan(String sql) {
+        List<String> plan = jdbc.queryForList("EXPLAIN " + sql, String.class);
+        String text = plan.stream().collect(Collectors.joining("\n"));
+        for (String table : HOT_TABLES) {
+            assertFalse(text.matches("(?s).*Seq Scan on " + table + "\\b.*"),
+                    () -> "Sequential scan on " + table + " for:\n" + sql + "\n" + text);
+        }
+    }
+
+    private long doctorId() {
+        return jdbc.queryForObject("SELECT id FROM doctors WHERE email = 'plan.doctor42@clinic.test'", Long.class);
+    }
+
+    private long patientId() {
+        return jdbc.queryForObject("SELECT id FROM patients WHERE email = 'plan.patient42@clinic.test'", Long.class);
+    }
+
+    private long appointmentId() {
+        return jdbc.queryForObject("SELECT max(id) FROM appointments", Long.class);
+    }
+
+    private static LocalDateTime start() {
+        return PageCursor.START.getAppointmentTime();
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        static StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+
+    /**
+     * Wraps the data source so that, while {@link #capture} runs, every prepared statement is recorded as
+     * executed: the driver renders it with its bound values inlined, which is what EXPLAIN needs.
+     */
+    static class StatementCapture implements BeanPostProcessor {
+
+        private List<String> statements;
+
+        List<String> capture(Runnable query) {
+            statements = new ArrayList<>();
+            try {
+                query.run();
+                return statements;
+            } finally {
+                statements = null;
+            }
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return wrap(DataSource.class, dataSource, (name, result) ->
+                    name.equals("getConnection") ? wrap(Connection.class, (Connection) result, (connectionMethod, statement) ->
+                            connectionMethod.equals("prepareStatement") ? recording((PreparedStatement) statement) : statement) : result);
+        }
+
+        private PreparedStatement recording(PreparedStatement statement) {
+            return wrap(PreparedStatement.class, statement, (name, result) -> result, name -> {
+                if (statements != null && name.startsWith("execute")) {
+                    statements.add(statement.unwrap(PreparedStatement.class).toString());
+                }
+            });
+        }
+
+        private static <T> T wrap(Class<T> type, T target, ResultMapper mapper) {
+            return wrap(type, target, mapper, name -> {});
+        }
+
+        private static <T> T wrap(Class<T> type, T target, ResultMapper mapper, BeforeCall before) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                before.accept(method.getName());
+                try {
+                    return mapper.map(method.getName(), method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }));
+        }
+
+        private interface ResultMapper {
+            Object map(String method, Object result) throws Exception;
+        }
+
+        private interface BeforeCall {
+            void accept(String method) throws Exception;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.project.back_end.services;
+
+import com.project.back_end.services.AppointmentJournal.Event;
+import com.project.back_end.services.AppointmentJournal.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs {@link AppointmentJournal} on four-record segments in a temporary directory, so rotation, recovery of a
+ * torn tail, readers crossing segments and retention all happen within a few records.
+ */
+class AppointmentJournalTests {
+
+    private static final int RECORDS_PER_SEGMENT = 4;
+    private static final LocalDateTime TIME = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @TempDir
+    Path directory;
+
+    private final List<AppointmentJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        opened.forEach(AppointmentJournal::close);
+    }
+
+    @Test
+    void rotatesIntoSegmentsNamedAfterTheirFirstSequence() throws IOException {
+        AppointmentJournal journal = open(16);
+
+        record(journal, 10);
+
+        assertEquals(10, journal.lastSequence());
+        assertEquals(List.of(1L, 5L, 9L), segmentFiles());
+    }
+
+    @Test
+    void forceMapsTheNextSegmentAheadOfRotation() throws IOException {
+        AppointmentJournal journal = open(16);
+        assertEquals(List.of(1L, 5L), segmentFiles());
+        record(journal, 6);
+        assertEquals(List.of(1L, 5L), segmentFiles());
+
+        journal.force();
+        assertEquals(List.of(1L, 5L, 9L), segmentFiles());
+        record(journal, 3);
+
+        assertEquals(9, journal.lastSequence());
+        assertEquals(9L, journal.reader(9).poll(1).get(0).sequence());
+    }
+
+    @Test
+    void readerCrossesSegmentBoundaries() throws IOException {
+        AppointmentJournal journal = open(16);
+        record(journal, 10);
+
+        AppointmentJournal.Reader reader = journal.reader(3);
+        List<Event> events = new ArrayList<>();
+        for (List<Event> batch; !(batch = reader.poll(3)).isEmpty(); ) {
+            events.addAll(batch);
+        }
+
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), events.stream().map(Event::sequence).toList());
+        Event fifth = events.get(2);
+        assertEquals(Type.BOOKED, fifth.type());
+        assertEquals(105L, fifth.appointmentId());
+        assertEquals(TIME.plusHours(5), fifth.appointmentTime());
+        assertEquals(11, reader.nextSequence());
+    }
+
+    @Test
+    void readerSeesRecordsAppendedAfterItCaughtUp() throws IOException {
+        AppointmentJournal journal = open(16);
+        record(journal, 3);
+        AppointmentJournal.Reader reader = journal.reader(1);
+        assertEquals(3, reader.poll(10).size());
+
+        journal.record(Type.STATUS, 7L, null, null, null, 2);
+        record(journal, 2);
+
+        List<Event> events = reader.poll(10);
+        assertEquals(List.of(4L, 5L, 6L), events.stream().map(Event::sequence).toList());
+        assertEquals(Type.STATUS, events.get(0).type());
+        assertNull(events.get(0).appointmentTime());
+        assertEquals(2, events.get(0).status());
+    }
+
+    @Test
+    void reopeningContinuesAfterTheLastRecord() throws IOException {
+        AppointmentJournal first = open(16);
+        record(first, 6);
+        first.force();
+        first.close();
+        opened.remove(first);
+
+        AppointmentJournal second = open(16);
+        assertEquals(6, second.lastSequence());
+        assertEquals(List.of(1L, 5L, 9L), segmentFiles());
+        record(second, 3);
+
+        assertEquals(9, second.lastSequence());
+        assertEquals(9, second.reader(1).poll(100).size());
+    }
+
+    @Test
+    void tornTailIsDroppedAndOverwrittenOnOpen() throws IOException {
+        AppointmentJournal first = open(16);
+        record(first, 7);
+        first.close();
+        opened.remove(first);
+        corrupt(5, 2);
+
+        AppointmentJournal second = open(16);
+        assertEquals(6, second.lastSequence());
+        second.record(Type.CANCELLED, 900L, 1L, 1L, TIME, 0);
+
+        List<Event> events = second.reader(1).poll(100);
+        assertEquals(7, events.size());
+        assertEquals(Type.CANCELLED, events.get(6).type());
+        assertEquals(900L, events.get(6).appointmentId());
+    }
+
+    @Test
+    void emptyTrailingSegmentIsDroppedOnOpen() throws IOException {
+        AppointmentJournal first = open(16);
+        record(first, RECORDS_PER_SEGMENT);
+        first.force();
+        first.close();
+        opened.remove(first);
+        assertEquals(List.of(1L, 5L), segmentFiles());
+
+        AppointmentJournal second = open(16);
+
+        assertEquals(RECORDS_PER_SEGMENT, second.lastSequence());
+        record(second, 1);
+        assertEquals(5L, second.reader(5).poll(1).get(0).sequence());
+    }
+
+    @Test
+    void oldestSegmentsBeyondTheLimitAreDeleted() throws IOException {
+        AppointmentJournal journal = open(2);
+        record(journal, 3);
+        AppointmentJournal.Reader behind = journal.reader(1);
+        assertEquals(1L, behind.poll(1).get(0).sequence());
+        record(journal, 10);
+
+        journal.force();
+
+        assertEquals(List.of(9L, 13L, 17L), segmentFiles());
+        assertEquals(9L, journal.reader(1).poll(1).get(0).sequence());
+        assertEquals(List.of(2L, 3L, 4L), behind.poll(3).stream().map(Event::sequence).toList());
+        assertThrows(IllegalStateException.class, () -> behind.poll(1));
+    }
+
+    private AppointmentJournal open(int maxSegments) throws IOException {
+        AppointmentJournal journal = new AppointmentJournal();
+        ReflectionTestUtils.setField(journal, "directory", directory);
+        ReflectionTestUtils.setField(journal, "segmentSize", DataSize.ofBytes((long) RECORDS_PER_SEGMENT * AppointmentJournal.RECORD_BYTES));
+        ReflectionTestUtils.setField(journal, "maxSegments", maxSegments);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private static void record(AppointmentJournal journal, int count) {
+        for (int i = 0; i < count; i++) {
+            long sequence = journal.lastSequence() + 1;
+            journal.record(Type.BOOKED, 100 + sequence, 1L, 2L, TIME.plusHours(sequence), 0);
+        }
+    }
+
+    /** Flips a byte inside the record at {@code index} of the segment starting at {@code first}. */
+    private void corrupt(long first, int index) throws IOException {
+        Path file = directory.resolve(String.format("%020d.journal", first));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = (long) index * AppointmentJournal.RECORD_BYTES + 20;
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) ~value.get(0)).rewind();
+            channel.write(value, position);
+        }
+    }
+
+    private List<Long> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .map(name -> Long.parseLong(name.substring(0, name.indexOf('.'))))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.WeeklySchedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Holds a row lock on an appointment so a status flush blocks inside its UPDATE, submits a newer status meanwhile
+ * and checks the database ends up with the newer one. Commits real rows, so it seeds and deletes its own.
+ * Requires PGHOST and friends to point at a disposable database.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class AppointmentStatusFlushTests {
+
+    @Autowired
+    private AppointmentStatusQueue appointmentStatusQueue;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long doctorId;
+    private Long patientId;
+    private Long appointmentId;
+
+    @BeforeEach
+    void seed() {
+        doctorId = jdbc.queryForObject("INSERT INTO doctors (name, specialty, email, password, phone, schedule) "
+                + "VALUES ('Flush Doctor', 'Cardiology', 'flush.doctor@clinic.test', 'secret1', '5550006666', ?) RETURNING id",
+                Long.class, (Object) WeeklySchedule.everyDay(List.of("09:00")).toBytes());
+        patientId = jdbc.queryForObject("INSERT INTO patients (name, email, password, phone, address) "
+                + "VALUES ('Flush Patient', 'flush.patient@clinic.test', 'secret1', '5550006667', 'Street') RETURNING id", Long.class);
+        appointmentId = jdbc.queryForObject("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status) "
+                + "VALUES (?, ?, ?, 0) RETURNING id", Long.class,
+                doctorId, patientId, Timestamp.valueOf(LocalDate.now().plusDays(400).atTime(9, 0)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        appointmentStatusQueue.flush();
+        jdbc.update("DELETE FROM appointments WHERE id = ?", appointmentId);
+        jdbc.update("DELETE FROM doctors WHERE id = ?", doctorId);
+        jdbc.update("DELETE FROM patients WHERE id = ?", patientId);
+    }
+
+    @Test
+    void statusSubmittedDuringFlushReachesTheDatabase() throws Exception {
+        Thread flush;
+        try (Connection lock = dataSource.getConnection()) {
+            lock.setAutoCommit(false);
+            try (PreparedStatement select = lock.prepareStatement("SELECT id FROM appointments WHERE id = ? FOR UPDATE")) {
+                select.setLong(1, appointmentId);
+                select.executeQuery().close();
+            }
+            appointmentStatusQueue.submit(appointmentId, 1);
+            flush = new Thread(appointmentStatusQueue::flush);
+            flush.start();
+            awaitBlockedUpdate();
+
+            appointmentStatusQueue.submit(appointmentId, 2);
+            lock.commit();
+        }
+        flush.join(10_000);
+        appointmentStatusQueue.flush();
+
+        assertEquals(2, jdbc.queryForObject("SELECT status FROM appointments WHERE id = ?", Integer.class, appointmentId));
+    }
+
+    /** Waits until a flush, the scheduled one or ours, is stuck behind the row lock. */
+    private void awaitBlockedUpdate() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer waiting = jdbc.queryForObject("SELECT count(*) FROM pg_locks WHERE NOT granted", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        assertTrue(false, "no flush blocked on the appointment row within 5s");
+    }
+}
@@ -0,0 +1,220 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.repo.AppointmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link AppointmentStatusQueue} on a journal in a temporary directory with a mocked repository that records
+ * each {@code updateStatuses} call per transaction, so coalescing, replay and flush races are checked without a database.
+ */
+class AppointmentStatusQueueTests {
+
+    private static final int RECORD = Long.BYTES + Integer.BYTES;
+
+    @TempDir
+    Path directory;
+
+    private final AppointmentRepository repository = mock(AppointmentRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<Map<Integer, List<Long>>> flushes = new ArrayList<>();
+    private final List<AppointmentStatusQueue> opened = new ArrayList<>();
+
+    @BeforeEach
+    void startFlushPerTransaction() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            flushes.add(new HashMap<>());
+            return new SimpleTransactionStatus();
+        });
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        for (AppointmentStatusQueue queue : opened) {
+            queue.close();
+        }
+    }
+
+    @Test
+    void latestStatusWinsAndEachStatusIsOneUpdate() throws IOException {
+        recordUpdates();
+        AppointmentStatusQueue queue = open();
+
+        queue.submit(1L, 1);
+        queue.submit(1L, 2);
+        queue.submit(2L, 1);
+        queue.submit(3L, 1);
+        queue.flush();
+
+        assertEquals(List.of(Map.of(2, List.of(1L), 1, List.of(2L, 3L))), flushes);
+        queue.flush();
+        assertEquals(1, flushes.size());
+    }
+
+    @Test
+    void overlayReplacesOnlyPendingStatuses() throws IOException {
+        AppointmentStatusQueue queue = open();
+        queue.submit(1L, 2);
+
+        List<AppointmentDTO> appointments = queue.overlay(List.of(appointment(1L, 0), appointment(2L, 0)));
+
+        assertEquals(2, appointments.get(0).getStatus());
+        assertEquals(0, appointments.get(1).getStatus());
+        assertNull(queue.overlay((AppointmentDTO) null));
+    }
+
+    @Test
+    void unflushedChangesAreReplayedAfterRestart() throws IOException {
+        doThrow(new IllegalStateException("database unavailable")).when(repository).updateStatuses(anyInt(), anyCollection());
+        AppointmentStatusQueue first = open();
+        first.submit(1L, 1);
+        first.submit(1L, 2);
+        first.submit(2L, 1);
+        first.close();
+        opened.remove(first);
+        flushes.clear();
+
+        recordUpdates();
+        AppointmentStatusQueue second = open();
+
+        assertEquals(2, second.overlay(appointment(1L, 0)).getStatus());
+        second.flush();
+        assertEquals(List.of(Map.of(2, List.of(1L), 1, List.of(2L))), flushes);
+    }
+
+    @Test
+    void flushedChangesAreNotReplayed() throws IOException {
+        recordUpdates();
+        AppointmentStatusQueue first = open();
+        first.submit(1L, 1);
+        first.close();
+        opened.remove(first);
+
+        AppointmentStatusQueue second = open();
+        second.flush();
+
+        assertEquals(1, flushes.size());
+        assertEquals(0, second.overlay(appointment(1L, 0)).getStatus());
+    }
+
+    @Test
+    void tornTrailingRecordIsIgnoredOnReplay() throws IOException {
+        ByteBuffer journal = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + 5).putLong(4L).putInt(3).put(new byte[5]);
+        Files.write(directory.resolve("status.journal"), journal.array());
+        recordUpdates();
+
+        AppointmentStatusQueue queue = open();
+        queue.flush();
+
+        assertEquals(List.of(Map.of(3, List.of(4L))), flushes);
+        assertEquals(0, Files.size(directory.resolve("status.journal")));
+    }
+
+    @Test
+    void compactionInterruptedBeforeTheRenameLeavesTheJournalWhole() throws IOException {
+        Files.write(directory.resolve("status.journal"), ByteBuffer.allocate(RECORD).putLong(4L).putInt(3).array());
+        Files.write(directory.resolve("status.journal.compact"), new byte[]{1, 2, 3});
+        recordUpdates();
+
+        AppointmentStatusQueue queue = open();
+
+        assertFalse(Files.exists(directory.resolve("status.journal.compact")));
+        assertEquals(RECORD, Files.size(directory.resolve("status.journal")));
+        queue.submit(5L, 1);
+        assertEquals(2 * RECORD, Files.size(directory.resolve("status.journal")));
+        queue.flush();
+        assertEquals(List.of(Map.of(3, List.of(4L), 1, List.of(5L))), flushes);
+        assertEquals(0, Files.size(directory.resolve("status.journal")));
+    }
+
+    @Test
+    void changeSubmittedDuringFlushStaysPending() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            record(invocation.getArgument(0), invocation.getArgument(1));
+            flushing.countDown();
+            await(release);
+            return 1;
+        }).when(repository).updateStatuses(anyInt(), anyCollection());
+        AppointmentStatusQueue queue = open();
+        queue.submit(1L, 1);
+        Thread flush = new Thread(queue::flush);
+        flush.start();
+
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        queue.submit(1L, 2);
+        release.countDown();
+        flush.join();
+
+        assertEquals(2, queue.overlay(appointment(1L, 0)).getStatus());
+        queue.flush();
+        assertEquals(List.of(Map.of(1, List.of(1L)), Map.of(2, List.of(1L))), flushes);
+    }
+
+    private AppointmentStatusQueue open() throws IOException {
+        AppointmentStatusQueue queue = new AppointmentStatusQueue(repository, transactionManager);
+        ReflectionTestUtils.setField(queue, "journalPath", directory.resolve("status.journal"));
+        ReflectionTestUtils.setField(queue, "batchSize", 500);
+        queue.open();
+        opened.add(queue);
+        return queue;
+    }
+
+    private void recordUpdates() {
+        doAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            record(invocation.getArgument(0), ids);
+            return ids.size();
+        }).when(repository).updateStatuses(anyInt(), anyCollection());
+    }
+
+    /** Adds the ids of one update to the current transaction's flush, keyed by status. */
+    private void record(int status, Collection<Long> ids) {
+        flushes.get(flushes.size() - 1).put(status, ids.stream().sorted().toList());
+    }
+
+    private static AppointmentDTO appointment(Long id, int status) {
+        return new AppointmentDTO(id, 1L, "Dr. Test", 1L, "Patient", "patient@clinic.test", "5550000000",
+                "Street", LocalDateTime.of(2030, 1, 7, 9, 0), status, "checkup");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
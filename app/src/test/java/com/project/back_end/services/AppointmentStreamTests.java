@@ -0,0 +1,222 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.repo.AppointmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives {@link AppointmentStream} against a mocked repository and emitters that record what they are sent,
+ * so ordering and isolation between subscribers are checked without a database or HTTP.
+ */
+class AppointmentStreamTests {
+
+    private static final long DOCTOR = 7L;
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+    private static final LocalDateTime NINE = DAY.atTime(9, 0);
+
+    private final BlockingQueue<RecordingEmitter> emitters = new LinkedBlockingQueue<>();
+    private final AppointmentRepository repository = mock(AppointmentRepository.class);
+    private final AppointmentStream stream = new AppointmentStream(repository, new AppointmentStatusQueue(repository, null)) {
+        @Override
+        SseEmitter createEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @AfterEach
+    void shutdown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void snapshotIsSentBeforeEventsThatCommitWhileItLoads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findDtosByDoctorIdAndAppointmentTimeBetween(eq(DOCTOR), any(), any())).thenAnswer(invocation -> {
+            await(release);
+            return List.of(appointment(1L, NINE));
+        });
+        RecordingEmitter emitter = subscribe(DOCTOR, DAY);
+
+        stream.cancelled(1L, DOCTOR, NINE);
+        stream.cancelled(2L, DOCTOR, NINE.plusHours(1));
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        assertEquals("snapshot", emitter.next().name());
+        assertEquals(Map.of("id", 1L), emitter.next().data());
+        assertEquals(Map.of("id", 2L), emitter.next().data());
+    }
+
+    @Test
+    void eventsKeepCommitOrderWhenALaterLookupFinishesFirst() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findDtosByDoctorIdAndAppointmentTimeIn(eq(DOCTOR), anyCollection())).thenAnswer(invocation -> {
+            await(release);
+            return List.of(appointment(3L, NINE));
+        });
+        RecordingEmitter emitter = subscribe(DOCTOR, DAY);
+        assertEquals("snapshot", emitter.next().name());
+
+        stream.booked(DOCTOR, List.of(NINE));
+        stream.cancelled(3L, DOCTOR, NINE);
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        assertEquals("booked", emitter.next().name());
+        assertEquals("cancelled", emitter.next().name());
+    }
+
+    @Test
+    void bookedSendsOnlyTheSubscribedDay() throws Exception {
+        when(repository.findDtosByDoctorIdAndAppointmentTimeIn(eq(DOCTOR), anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<LocalDateTime>>getArgument(1).stream().map(time -> appointment(4L, time)).toList());
+        RecordingEmitter emitter = subscribe(DOCTOR, DAY);
+        assertEquals("snapshot", emitter.next().name());
+
+        stream.booked(DOCTOR, List.of(NINE, NINE.plusDays(1)));
+        stream.booked(DOCTOR + 1, List.of(NINE));
+        stream.cancelled(5L, DOCTOR, NINE);
+
+        Sent booked = emitter.next();
+        assertEquals("booked", booked.name());
+        assertEquals(NINE, ((AppointmentDTO) booked.data()).getAppointmentTime());
+        assertEquals("cancelled", emitter.next().name());
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void statusChangeReachesOnlyTheAppointmentsDay() throws Exception {
+        when(repository.findDtoById(anyLong())).thenAnswer(invocation -> appointment(invocation.getArgument(0), NINE));
+        RecordingEmitter watching = subscribe(DOCTOR, DAY);
+        RecordingEmitter elsewhere = subscribe(DOCTOR, DAY.plusDays(1));
+        assertEquals("snapshot", watching.next().name());
+        assertEquals("snapshot", elsewhere.next().name());
+
+        stream.statusChanged(6L, 1);
+
+        assertEquals(new Sent("status", Map.of("id", 6L, "status", 1)), watching.next());
+        assertNull(elsewhere.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void slowClientDoesNotHoldUpOthers() throws Exception {
+        RecordingEmitter slow = subscribe(DOCTOR, DAY);
+        RecordingEmitter fast = subscribe(DOCTOR, DAY);
+        assertEquals("snapshot", slow.next().name());
+        assertEquals("snapshot", fast.next().name());
+        CountDownLatch release = new CountDownLatch(1);
+        slow.blockOnSend = release;
+
+        stream.cancelled(8L, DOCTOR, NINE);
+        stream.cancelled(9L, DOCTOR, NINE);
+
+        assertEquals(Map.of("id", 8L), fast.next().data());
+        assertEquals(Map.of("id", 9L), fast.next().data());
+        release.countDown();
+        assertEquals(Map.of("id", 8L), slow.next().data());
+        assertEquals(Map.of("id", 9L), slow.next().data());
+    }
+
+    @Test
+    void failedSnapshotEndsTheStream() throws Exception {
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        when(repository.findDtosByDoctorIdAndAppointmentTimeBetween(eq(DOCTOR), any(), any())).thenThrow(failure);
+        RecordingEmitter emitter = subscribe(DOCTOR, DAY);
+
+        assertEquals(failure, emitter.error.get(5, TimeUnit.SECONDS));
+        stream.cancelled(10L, DOCTOR, NINE);
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private RecordingEmitter subscribe(long doctorId, LocalDate date) {
+        stream.subscribe(doctorId, date);
+        RecordingEmitter emitter = emitters.poll();
+        assertTrue(emitter != null);
+        return emitter;
+    }
+
+    private static AppointmentDTO appointment(Long id, LocalDateTime time) {
+        return new AppointmentDTO(id, DOCTOR, "Dr. Test", 1L, "Patient", "patient@clinic.test", "5550000000",
+                "Street", time, 0, "checkup");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Sent(String name, Object data) {}
+
+    /** Records each event instead of writing it; never attached to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern EVENT = Pattern.compile("event:(\\w+)");
+
+        private final BlockingQueue<Sent> sent = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Throwable> error = new CompletableFuture<>();
+        private volatile CountDownLatch blockOnSend;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            CountDownLatch latch = blockOnSend;
+            if (latch != null) {
+                await(latch);
+            }
+            Set<DataWithMediaType> parts = builder.build();
+            String name = null;
+            Object data = null;
+            for (DataWithMediaType part : parts) {
+                Matcher matcher = part.getData() instanceof String text ? EVENT.matcher(text) : null;
+                if (matcher != null && matcher.find()) {
+                    name = matcher.group(1);
+                } else if (!(part.getData() instanceof String)) {
+                    data = part.getData();
+                }
+            }
+            sent.add(new Sent(name, data));
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            error.complete(ex);
+        }
+
+        Sent next() throws InterruptedException {
+            Sent next = sent.poll(5, TimeUnit.SECONDS);
+            assertTrue(next != null, "no event within 5s");
+            return next;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.WeeklySchedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races many threads for the same slots and checks that each slot ends up booked exactly once.
+ * Bookings must commit to be visible across threads, so this seeds and deletes its own rows
+ * instead of rolling back. Requires PGHOST and friends to point at a disposable database.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class BookingConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final int DOCTORS = 4;
+    private static final int DAYS = 5;
+    private static final int HOURS = 8;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(300);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<Long> doctorIds = new ArrayList<>();
+    private final List<Long> patientIds = new ArrayList<>();
+    private final List<Slot> slots = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        List<String> times = new ArrayList<>();
+        for (int h = 0; h < HOURS; h++) {
+            times.add(LocalTime.of(9 + h, 0).toString());
+        }
+        byte[] schedule = WeeklySchedule.everyDay(times).toBytes();
+        for (int d = 0; d < DOCTORS; d++) {
+            Long id = jdbc.queryForObject("INSERT INTO doctors (name, specialty, email, password, phone, schedule) "
+                    + "VALUES (?, 'Cardiology', ?, 'secret1', '5550003333', ?) RETURNING id", Long.class,
+                    "Stress Doctor " + d, "stress.doctor" + d + "@clinic.test", schedule);
+            doctorIds.add(id);
+            for (int day = 0; day < DAYS; day++) {
+                for (int h = 0; h < HOURS; h++) {
+                    slots.add(new Slot(id, FIRST_DAY.plusDays(day).atTime(9 + h, 0)));
+                }
+            }
+        }
+        for (int p = 0; p < THREADS; p++) {
+            patientIds.add(jdbc.queryForObject("INSERT INTO patients (name, email, password, phone, address) "
+                    + "VALUES (?, ?, 'secret1', ?, 'Street') RETURNING id", Long.class,
+                    "Stress Patient " + p, "stress.patient" + p + "@clinic.test", String.valueOf(5550004000L + p)));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        clearAppointments();
+        for (Long id : doctorIds) {
+            jdbc.update("DELETE FROM doctors WHERE id = ?", id);
+        }
+        for (Long id : patientIds) {
+            jdbc.update("DELETE FROM patients WHERE id = ?", id);
+        }
+    }
+
+    @Test
+    void everySlotIsBookedExactlyOnce() throws Exception {
+        int successes = race(this::bookThroughService);
+
+        assertEquals(slots.size(), successes);
+        assertEquals(slots.size(), bookedRows());
+        assertEquals(0, doubleBookings());
+    }
+
+    @Test
+    void databaseRejectsSlotTheInventoryMissed() {
+        Slot slot = slots.get(0);
+        assertEquals(1, slotInventory.checkSlot(slot.doctorId(), slot.time()));
+        jdbc.update("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, 0)",
+                slot.doctorId(), patientIds.get(0), Timestamp.valueOf(slot.time()));
+
+        assertEquals(-1, appointmentService.bookAppointment(appointment(slot, patientIds.get(1))));
+        assertEquals(1, bookedRows());
+        assertEquals(0, slotInventory.checkSlot(slot.doctorId(), slot.time()));
+    }
+
+    private boolean bookThroughService(Slot slot, Long patientId) {
+        return appointmentService.bookAppointment(appointment(slot, patientId)) == 1;
+    }
+
+    /** Every thread tries every slot, in its own shuffled order. */
+    private int race(Booking booking) throws Exception {
+        AtomicInteger successes = new AtomicInteger();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Long patientId = patientIds.get(t);
+            List<Slot> order = new ArrayList<>(slots);
+            Collections.shuffle(order, new Random(t));
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (Slot slot : order) {
+                        if (booking.book(slot, patientId)) successes.incrementAndGet();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "booking threads failed: " + failures);
+        return successes.get();
+    }
+
+    private void clearAppointments() {
+        for (Long id : doctorIds) {
+            jdbc.update("DELETE FROM appointments WHERE doctor_id = ?", id);
+            slotInventory.evictDoctor(id);
+        }
+    }
+
+    private int bookedRows() {
+        return doctorIds.stream()
+                .mapToInt(id -> jdbc.queryForObject("SELECT count(*) FROM appointments WHERE doctor_id = ?", Integer.class, id))
+                .sum();
+    }
+
+    private int doubleBookings() {
+        return doctorIds.stream()
+                .mapToInt(id -> jdbc.queryForObject("SELECT count(*) FROM (SELECT appointment_time FROM appointments "
+                        + "WHERE doctor_id = ? GROUP BY appointment_time HAVING count(*) > 1) d", Integer.class, id))
+                .sum();
+    }
+
+    private static Appointment appointment(Slot slot, Long patientId) {
+        Doctor doctor = new Doctor();
+        doctor.setId(slot.doctorId());
+        Patient patient = new Patient();
+        patient.setId(patientId);
+        return new Appointment(doctor, patient, slot.time(), 0, "checkup");
+    }
+
+    private record Slot(Long doctorId, LocalDateTime time) {}
+
+    @FunctionalInterface
+    private interface Booking {
+        boolean book(Slot slot, Long patientId);
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the CSV side of {@link BulkImportService} without a database: splitting lines with quoted fields and
+ * doubled quotes, normalizing the header row and mapping a row's values onto its column names.
+ */
+class BulkImportCsvTests {
+
+    @Test
+    void plainFieldsSplitOnCommas() {
+        assertArrayEquals(new String[]{"Ann", "ann@clinic.test", "5550000000"}, BulkImportService.splitCsv("Ann,ann@clinic.test,5550000000"));
+    }
+
+    @Test
+    void emptyFieldsAreKeptIncludingTheLast() {
+        assertArrayEquals(new String[]{"", "", ""}, BulkImportService.splitCsv(",,"));
+        assertArrayEquals(new String[]{"a", ""}, BulkImportService.splitCsv("a,"));
+        assertArrayEquals(new String[]{""}, BulkImportService.splitCsv(""));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndSpaces() {
+        assertArrayEquals(new String[]{"12 Main St, Apt 3", " x "}, BulkImportService.splitCsv("\"12 Main St, Apt 3\", x "));
+    }
+
+    @Test
+    void doubledQuotesInsideQuotedFieldsBecomeOneQuote() {
+        assertArrayEquals(new String[]{"Cy \"Three\"", "b"}, BulkImportService.splitCsv("\"Cy \"\"Three\"\"\",b"));
+        assertArrayEquals(new String[]{"\""}, BulkImportService.splitCsv("\"\"\"\""));
+        assertArrayEquals(new String[]{"", "c"}, BulkImportService.splitCsv("\"\",c"));
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BulkImportService.splitCsv("\"12 Main St,b"));
+    }
+
+    @Test
+    void headerIsTrimmedAndLowerCased() {
+        assertArrayEquals(new String[]{"name", "email", "availabletimes"}, BulkImportService.header(" Name ,EMAIL,\"AvailableTimes\""));
+    }
+
+    @Test
+    void columnsFollowTheHeaderOrderAndEmptyValuesAreNull() {
+        String[] header = BulkImportService.header("Phone,Name,Address");
+
+        Map<String, String> columns = BulkImportService.columns(header, BulkImportService.splitCsv("5550000000,\"Ann, Jr.\","));
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("phone", "5550000000");
+        expected.put("name", "Ann, Jr.");
+        expected.put("address", null);
+        assertEquals(expected, columns);
+    }
+
+    @Test
+    void rowWithTheWrongColumnCountIsRejected() {
+        String[] header = BulkImportService.header("name,email,phone");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> BulkImportService.columns(header, new String[]{"Ann", "ann@clinic.test"}));
+
+        assertEquals("expected 3 columns but found 2", error.getMessage());
+    }
+
+    @Test
+    void rowWithoutAHeaderIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BulkImportService.columns(null, new String[]{"Ann"}));
+    }
+}
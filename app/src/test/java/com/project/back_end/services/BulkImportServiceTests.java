@@ -0,0 +1,160 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports patients through {@link BulkImportService} on four-row batches: invalid rows, duplicates within the file
+ * and against the table, and a batch the database rejects, which must fall back to row-by-row inserts. Imports
+ * commit, so every row uses this run's email suffix and is deleted afterwards.
+ * Requires PGHOST and friends to point at a disposable database.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "import.batch-size=4"})
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class BulkImportServiceTests {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private final long phones = 7_000_000_000L + ThreadLocalRandom.current().nextLong(1_000_000) * 1000;
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM patients WHERE email LIKE ?", "%." + run + "@import.test");
+    }
+
+    @Test
+    void csvRejectsInvalidRowsAndDuplicatesAndImportsTheRest() {
+        insertPatient("Existing Patient", email("existing"), phone(0));
+        String csv = String.join("\n",
+                " Name ,EMAIL,Password,Phone,Address",
+                "Ann One," + email("ann") + ",secret1," + phone(1) + ",\"12 Main St, Apt 3\"",
+                "Taken Email," + email("existing") + ",secret1," + phone(2) + ",Street",
+                "Ann Again," + email("ann") + ",secret1," + phone(3) + ",Street",
+                "Bad Phone," + email("bad") + ",secret1,123,Street",
+                "Too Short," + email("short") + ",secret1",
+                "",
+                "Same Phone," + email("bo") + ",secret1," + phone(1) + ",Street",
+                "\"Cy \"\"Three\"\"\"," + email("cy") + ",secret1," + phone(4) + ",");
+
+        ResponseEntity<Map<String, Object>> response = bulkImportService.importPatients(stream(csv), true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().get("imported"));
+        assertEquals(5, response.getBody().get("rejected"));
+        List<Map<String, Object>> errors = errors(response);
+        assertEquals(List.of(3, 4, 5, 6, 8), errors.stream().map(error -> error.get("line")).toList());
+        assertEquals("Patient with this email already exists", errors.get(0).get("error"));
+        assertEquals("Patient with this email already exists", errors.get(1).get("error"));
+        assertTrue(((String) errors.get(2).get("error")).startsWith("phone "));
+        assertTrue(((String) errors.get(3).get("error")).startsWith("Malformed record: expected 5 columns"));
+        assertEquals("Patient with this phone already exists", errors.get(4).get("error"));
+
+        assertEquals("12 Main St, Apt 3", jdbc.queryForObject("SELECT address FROM patients WHERE email = ?", String.class, email("ann")));
+        assertEquals("Cy \"Three\"", jdbc.queryForObject("SELECT name FROM patients WHERE email = ?", String.class, email("cy")));
+        assertNull(jdbc.queryForObject("SELECT address FROM patients WHERE email = ?", String.class, email("cy")));
+    }
+
+    @Test
+    void ndjsonBatchTheDatabaseRejectsIsRetriedRowByRow() {
+        String ndjson = String.join("\n",
+                patientJson("p1", 1),
+                patientJson("taken", 2),
+                patientJson("p3", 3),
+                patientJson("p4", 4),
+                patientJson("p5", 5),
+                "{\"name\": \"Torn",
+                patientJson("p7", 7));
+        // Takes an email after the import has loaded the existing ones, like a concurrent signup would.
+        InputStream body = onFirstRead(stream(ndjson), () -> insertPatient("Signed Up", email("taken"), phone(0)));
+
+        ResponseEntity<Map<String, Object>> response = bulkImportService.importPatients(body, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(5, response.getBody().get("imported"));
+        assertEquals(2, response.getBody().get("rejected"));
+        List<Map<String, Object>> errors = errors(response);
+        assertEquals(List.of(2, 6), errors.stream().map(error -> error.get("line")).toList());
+        assertTrue(((String) errors.get(0).get("error")).contains("duplicate key"));
+        assertTrue(((String) errors.get(1).get("error")).startsWith("Malformed record: "));
+
+        assertEquals(List.of("Signed Up", "Patient p1", "Patient p3", "Patient p4", "Patient p5", "Patient p7"), jdbc.queryForList(
+                "SELECT name FROM patients WHERE email LIKE ? ORDER BY phone", String.class, "%." + run + "@import.test"));
+    }
+
+    private String email(String name) {
+        return name + "." + run + "@import.test";
+    }
+
+    private String phone(int index) {
+        return Long.toString(phones + index);
+    }
+
+    private String patientJson(String name, int phone) {
+        return "{\"name\": \"Patient " + name + "\", \"email\": \"" + email(name) + "\", \"password\": \"secret1\", \"phone\": \""
+                + phone(phone) + "\", \"address\": \"Street\"}";
+    }
+
+    private void insertPatient(String name, String email, String phone) {
+        jdbc.update("INSERT INTO patients (name, email, password, phone, address) VALUES (?, ?, 'secret1', ?, 'Street')",
+                name, email, phone);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> errors(ResponseEntity<Map<String, Object>> response) {
+        return (List<Map<String, Object>>) response.getBody().get("errors");
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream onFirstRead(InputStream body, Runnable action) {
+        return new FilterInputStream(body) {
+            private boolean started;
+
+            @Override
+            public int read() throws IOException {
+                start();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                start();
+                return super.read(buffer, offset, length);
+            }
+
+            private void start() {
+                if (!started) {
+                    started = true;
+                    action.run();
+                }
+            }
+        };
+    }
+}
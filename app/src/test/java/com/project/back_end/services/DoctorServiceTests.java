@@ -0,0 +1,80 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.WeeklySchedule;
+import com.project.back_end.services.AppointmentJournal.Event;
+import com.project.back_end.services.AppointmentJournal.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deletes a doctor with booked appointments and checks each appointment is journaled as cancelled once the delete
+ * commits. Commits real rows, so it seeds its own and removes the patient afterwards.
+ * Requires PGHOST and friends to point at a disposable database.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+")
+class DoctorServiceTests {
+
+    private static final LocalDateTime NINE = LocalDate.now().plusDays(200).atTime(9, 0);
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private AppointmentJournal appointmentJournal;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private Long patientId;
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM patients WHERE id = ?", patientId);
+    }
+
+    @Test
+    void deletingADoctorJournalsACancellationPerAppointment() {
+        Long doctorId = jdbc.queryForObject("INSERT INTO doctors (name, specialty, email, password, phone, schedule) "
+                + "VALUES ('Leaving Doctor', 'Cardiology', ?, 'secret1', '5550008888', ?) RETURNING id",
+                Long.class, "leaving.doctor." + run + "@clinic.test", WeeklySchedule.everyDay(List.of("09:00", "10:00")).toBytes());
+        patientId = jdbc.queryForObject("INSERT INTO patients (name, email, password, phone, address) "
+                + "VALUES ('Leaving Patient', ?, 'secret1', ?, 'Street') RETURNING id",
+                Long.class, "leaving.patient." + run + "@clinic.test",
+                Long.toString(8_000_000_000L + ThreadLocalRandom.current().nextLong(1_000_000_000L)));
+        Long first = appointment(doctorId, NINE, 0);
+        Long second = appointment(doctorId, NINE.plusHours(1), 1);
+        long before = appointmentJournal.lastSequence();
+
+        assertEquals(1, doctorService.deleteDoctor(doctorId));
+
+        List<Event> events = appointmentJournal.reader(before + 1).poll(10);
+        assertEquals(List.of(first, second), events.stream().map(Event::appointmentId).sorted().toList());
+        for (Event event : events) {
+            assertEquals(Type.CANCELLED, event.type());
+            assertEquals(doctorId, event.doctorId());
+            assertEquals(patientId, event.patientId());
+        }
+        assertEquals(List.of(NINE, NINE.plusHours(1)), events.stream().map(Event::appointmentTime).sorted().toList());
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM appointments WHERE doctor_id = ?", Integer.class, doctorId));
+    }
+
+    private Long appointment(Long doctorId, LocalDateTime time, int status) {
+        return jdbc.queryForObject("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status) "
+                + "VALUES (?, ?, ?, ?) RETURNING id", Long.class, doctorId, patientId, Timestamp.valueOf(time), status);
+    }
+}
@@ -0,0 +1,209 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AvailableSlot;
+import com.project.back_end.DTO.BookedSlot;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.WeeklySchedule;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks {@link SlotInventory#findEarliest} and its word masks against mocked repositories: the search window
+ * at the ends of the day and across word boundaries, ties between doctors, and the week-by-week booking loads.
+ */
+class SlotInventoryTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+    private static final int DAY_END = WeeklySchedule.MINUTES_PER_DAY;
+
+    private final List<BookedSlot> booked = new ArrayList<>();
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final SlotInventory inventory = inventory(new SlotInventory(mock(DoctorRepository.class), appointmentRepository,
+            new SimpleMeterRegistry()));
+
+    @BeforeEach
+    void stubBookings() {
+        when(appointmentRepository.findBookedSlotsByDoctorIdInAndAppointmentTimeBetween(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Collection<Long> doctorIds = invocation.getArgument(0);
+                    LocalDateTime start = invocation.getArgument(1);
+                    LocalDateTime end = invocation.getArgument(2);
+                    return booked.stream()
+                            .filter(slot -> doctorIds.contains(slot.getDoctorId()))
+                            .filter(slot -> !slot.getAppointmentTime().isBefore(start) && !slot.getAppointmentTime().isAfter(end))
+                            .toList();
+                });
+    }
+
+    @Test
+    void windowCoversWholeWordsInsideTheRange() {
+        assertEquals(-1L, SlotInventory.window(0, 0, 64));
+        assertEquals(-1L, SlotInventory.window(1, 0, DAY_END));
+        assertEquals(0L, SlotInventory.window(0, 64, DAY_END));
+        assertEquals(0L, SlotInventory.window(2, 0, 128));
+    }
+
+    @Test
+    void morningAndAfternoonSplitTheWordHoldingNoon() {
+        int word = WeeklySchedule.NOON >>> 6;
+        long morning = SlotInventory.window(word, 0, WeeklySchedule.NOON);
+        long afternoon = SlotInventory.window(word, WeeklySchedule.NOON, DAY_END);
+
+        assertEquals((1L << (WeeklySchedule.NOON & 63)) - 1, morning);
+        assertEquals(0L, morning & afternoon);
+        assertEquals(-1L, morning | afternoon);
+    }
+
+    @Test
+    void windowInsideOneWordKeepsOnlyThoseMinutes() {
+        assertEquals(0b1110L << 4, SlotInventory.window(3, 3 * 64 + 5, 3 * 64 + 8));
+        assertEquals(0L, SlotInventory.window(3, 3 * 64 + 8, 3 * 64 + 8));
+    }
+
+    @Test
+    void afterLastMinuteOfDayStartsNextMorning() {
+        Doctor doctor = doctor(1, "09:00", "23:58", "23:59");
+
+        List<AvailableSlot> slots = inventory.findEarliest(List.of(doctor), MONDAY.atTime(23, 59), MONDAY.plusDays(1), 0, DAY_END, 2);
+
+        assertEquals(List.of(MONDAY.plusDays(1).atTime(9, 0), MONDAY.plusDays(1).atTime(23, 58)), times(slots));
+    }
+
+    @Test
+    void afterLastMinuteOfLastDayFindsNothing() {
+        Doctor doctor = doctor(1, "09:00", "23:59");
+
+        assertTrue(inventory.findEarliest(List.of(doctor), MONDAY.atTime(23, 59), MONDAY, 0, DAY_END, 5).isEmpty());
+    }
+
+    @Test
+    void morningAndAfternoonWindowsSplitAtNoonAcrossWords() {
+        Doctor doctor = doctor(1, "10:30", "11:59", "12:00", "12:45");
+
+        List<AvailableSlot> morning = inventory.findEarliest(List.of(doctor), MONDAY.atStartOfDay(), MONDAY, 0, WeeklySchedule.NOON, 10);
+        List<AvailableSlot> afternoon = inventory.findEarliest(List.of(doctor), MONDAY.atStartOfDay(), MONDAY, WeeklySchedule.NOON, DAY_END, 10);
+
+        assertEquals(List.of(MONDAY.atTime(10, 30), MONDAY.atTime(11, 59)), times(morning));
+        assertEquals(List.of(MONDAY.atTime(12, 0), MONDAY.atTime(12, 45)), times(afternoon));
+    }
+
+    @Test
+    void windowStartingMidWordSkipsEarlierMinutes() {
+        Doctor doctor = doctor(1, "10:40", "10:41", "11:00");
+
+        List<AvailableSlot> slots = inventory.findEarliest(List.of(doctor), MONDAY.atStartOfDay(), MONDAY, 10 * 60 + 41, 11 * 60, 10);
+
+        assertEquals(List.of(MONDAY.atTime(10, 41)), times(slots));
+    }
+
+    @Test
+    void tiesAreReturnedInDoctorOrderBeforeLaterMinutes() {
+        Doctor first = doctor(1, "09:00", "10:00");
+        Doctor second = doctor(2, "09:00", "09:30");
+        booked.add(new BookedSlot(1L, MONDAY.atTime(10, 0)));
+
+        List<AvailableSlot> slots = inventory.findEarliest(List.of(first, second), MONDAY.atStartOfDay(), MONDAY, 0, DAY_END, 10);
+
+        assertEquals(List.of(1L, 2L, 2L), slots.stream().map(AvailableSlot::getDoctorId).toList());
+        assertEquals(List.of(MONDAY.atTime(9, 0), MONDAY.atTime(9, 0), MONDAY.atTime(9, 30)), times(slots));
+    }
+
+    @Test
+    void limitCutsATieShort() {
+        Doctor first = doctor(1, "09:00");
+        Doctor second = doctor(2, "09:00");
+
+        List<AvailableSlot> slots = inventory.findEarliest(List.of(first, second), MONDAY.atStartOfDay(), MONDAY, 0, DAY_END, 1);
+
+        assertEquals(1, slots.size());
+        assertEquals(1L, slots.get(0).getDoctorId());
+    }
+
+    @Test
+    void fullyBookedWeekRollsOverToTheNextWeeksLoad() {
+        Doctor doctor = doctor(1, "09:00");
+        LocalDate thursday = MONDAY.plusDays(3);
+        for (int day = 0; day < 7; day++) {
+            booked.add(new BookedSlot(1L, thursday.plusDays(day).atTime(9, 0)));
+        }
+
+        List<AvailableSlot> slots = inventory.findEarliest(List.of(doctor), thursday.atTime(8, 0), thursday.plusDays(20), 0, DAY_END, 1);
+
+        assertEquals(List.of(thursday.plusDays(7).atTime(9, 0)), times(slots));
+        ArgumentCaptor<LocalDateTime> starts = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> ends = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(appointmentRepository, atLeastOnce())
+                .findBookedSlotsByDoctorIdInAndAppointmentTimeBetween(anyCollection(), starts.capture(), ends.capture());
+        assertEquals(List.of(thursday.atStartOfDay(), thursday.plusDays(7).atStartOfDay()), starts.getAllValues());
+        assertEquals(List.of(thursday.plusDays(6).atTime(LocalTime.MAX), thursday.plusDays(13).atTime(LocalTime.MAX)),
+                ends.getAllValues());
+    }
+
+    @Test
+    void lastWeekIsCutAtTo() {
+        Doctor doctor = doctor(1, "09:00");
+        for (int day = 0; day < 7; day++) {
+            booked.add(new BookedSlot(1L, MONDAY.plusDays(day).atTime(9, 0)));
+        }
+
+        List<AvailableSlot> slots = inventory.findEarliest(List.of(doctor), MONDAY.atStartOfDay(), MONDAY.plusDays(8), 0, DAY_END, 5);
+
+        assertEquals(List.of(MONDAY.plusDays(7).atTime(9, 0), MONDAY.plusDays(8).atTime(9, 0)), times(slots));
+        ArgumentCaptor<LocalDateTime> ends = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(appointmentRepository, atLeastOnce())
+                .findBookedSlotsByDoctorIdInAndAppointmentTimeBetween(anyCollection(), any(), ends.capture());
+        assertEquals(MONDAY.plusDays(8).atTime(LocalTime.MAX), ends.getAllValues().get(1));
+    }
+
+    @Test
+    void horizonEndsBookingHorizonDaysFromToday() {
+        LocalDate last = LocalDate.now().plusDays(inventory.getBookingHorizonDays());
+
+        assertTrue(inventory.isWithinHorizon(MONDAY));
+        assertTrue(inventory.isWithinHorizon(last));
+        assertFalse(inventory.isWithinHorizon(last.plusDays(1)));
+    }
+
+    /** Caches freely and pushes the horizon past {@link #MONDAY}, which tests book against regardless of today's date. */
+    private static SlotInventory inventory(SlotInventory inventory) {
+        ReflectionTestUtils.setField(inventory, "maxCachedDays", 1000L);
+        ReflectionTestUtils.setField(inventory, "cachedDayTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(inventory, "bookingHorizonDays", (int) ChronoUnit.DAYS.between(LocalDate.now(), MONDAY) + 100);
+        ReflectionTestUtils.invokeMethod(inventory, "init");
+        return inventory;
+    }
+
+    private static Doctor doctor(long id, String... times) {
+        Doctor doctor = new Doctor("Dr. " + id, "Cardiology", "doctor" + id + "@clinic.test", "secret1", "5550000000", List.of(times));
+        doctor.setId(id);
+        return doctor;
+    }
+
+    private static List<LocalDateTime> times(List<AvailableSlot> slots) {
+        return slots.stream().map(AvailableSlot::getAppointmentTime).toList();
+    }
+}